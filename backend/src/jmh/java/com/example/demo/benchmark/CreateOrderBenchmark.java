@@ -0,0 +1,109 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.OrderSubmission;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderController.createOrder进入服务层之前的请求处理：请求体反序列化为Map（与Spring MVC相同的ObjectMapper配置），
+ * 再经OrderSubmission.fromRequest转换为订单和订单项实体。订单项分别使用productId和嵌套product两种写法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateOrderBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"1", "10", "50"})
+    private int items;
+
+    @Param({"productId", "product"})
+    private String itemStyle;
+
+    private ObjectMapper objectMapper;
+
+    private byte[] body;
+
+    private Map<String, Object> request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        body = objectMapper.writeValueAsBytes(requestBody());
+        request = objectMapper.readValue(body, MAP_TYPE);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseBody() throws IOException {
+        return objectMapper.readValue(body, MAP_TYPE);
+    }
+
+    @Benchmark
+    public void fromRequest(Blackhole blackhole) {
+        OrderSubmission submission = OrderSubmission.fromRequest(request);
+        Order order = submission.toOrder();
+        List<OrderItem> orderItems = submission.toOrderItems();
+        blackhole.consume(order);
+        blackhole.consume(orderItems);
+    }
+
+    @Benchmark
+    public void parseAndConvert(Blackhole blackhole) throws IOException {
+        OrderSubmission submission = OrderSubmission.fromRequest(objectMapper.readValue(body, MAP_TYPE));
+        blackhole.consume(submission.toOrder());
+        blackhole.consume(submission.toOrderItems());
+    }
+
+    private Map<String, Object> requestBody() {
+        List<Map<String, Object>> itemList = new ArrayList<>(items);
+        for (int i = 1; i <= items; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            if ("productId".equals(itemStyle)) {
+                item.put("productId", i);
+            } else {
+                item.put("product", Map.of("id", i));
+            }
+            item.put("productName", "Wireless Headphones " + i);
+            item.put("quantity", 2);
+            item.put("price", "199.99");
+            itemList.add(item);
+        }
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("userId", 42);
+        request.put("totalAmount", String.valueOf(399.98 * items));
+        request.put("totalQuantity", 2 * items);
+        request.put("status", "PENDING");
+        request.put("shippingAddress", "No. 1 Example Road, Shanghai");
+        request.put("paymentMethod", "ALIPAY");
+        request.put("items", itemList);
+        return request;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 把基准初始化时记录的编码字节数作为每次迭代的次要指标"encoded.bytes"输出（JSON结果的secondaryMetrics）。
+ * 按平均值聚合；@AuxCounters的EVENTS计数器会把各次迭代的值相加，不适合表示固定的大小。
+ * 在基准进程中运行（-prof com.example.demo.benchmark.EncodedSizeProfiler），只对记录了字节数的基准类输出
+ */
+public class EncodedSizeProfiler implements InternalProfiler {
+
+    private static volatile Recorded recorded;
+
+    /**
+     * 在@Setup中调用；不在TearDown中清除，最后一次迭代的afterIteration在Trial级TearDown之后执行
+     */
+    static void record(Class<?> benchmarkClass, long bytes) {
+        recorded = new Recorded(benchmarkClass.getName(), bytes);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Encoded size of the benchmark payload";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        Recorded current = recorded;
+        // 同一进程中（-f 0）运行的其他基准不输出上一个基准记录的值
+        if (current == null || !benchmarkParams.getBenchmark().startsWith(current.benchmarkClass() + ".")) {
+            return Collections.emptyList();
+        }
+        return List.of(new ScalarResult("encoded.bytes", current.bytes(), "B", AggregationPolicy.AVG));
+    }
+
+    private record Recorded(String benchmarkClass, long bytes) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.OrderNoGenerator;
+import com.example.demo.service.impl.SnowflakeOrderNoGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单号生成对比：原来的UUID截取与Snowflake，多线程共享同一个生成器
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class OrderNoBenchmark {
+
+    private final OrderNoGenerator snowflake = new SnowflakeOrderNoGenerator(null, 1, 5000, 30000);
+
+    @Benchmark
+    public String uuidSubstring() {
+        return "ORD" + UUID.randomUUID().toString().replace("-", "").substring(0, 10).toUpperCase();
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return snowflake.nextOrderNo();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.CompactRedisSerializer;
+import com.example.demo.model.Order;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存值序列化对比：原有的JDK序列化（缓存）和GenericJackson2Json（RedisTemplate），
+ * 与Smile、Smile+LZ4。每个组合的单条字节数由EncodedSizeProfiler作为次要指标"encoded.bytes"写入结果
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"JDK", "JSON", "SMILE", "SMILE_LZ4"})
+    private String serializer;
+
+    @Param({"product", "order", "orderList"})
+    private String payload;
+
+    private RedisSerializer<Object> redisSerializer;
+
+    private Object value;
+
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        redisSerializer = switch (serializer) {
+            case "JDK" -> new JdkSerializationRedisSerializer(classLoader);
+            case "JSON" -> new GenericJackson2JsonRedisSerializer();
+            case "SMILE" -> new CompactRedisSerializer(CompactRedisSerializer.Format.SMILE, 0, classLoader);
+            default -> new CompactRedisSerializer(CompactRedisSerializer.Format.SMILE, 1024, classLoader);
+        };
+        value = switch (payload) {
+            case "product" -> SampleData.product(1L);
+            case "order" -> SampleData.order(1L);
+            default -> SampleData.orders(100);
+        };
+        encoded = redisSerializer.serialize(value);
+        EncodedSizeProfiler.record(RedisSerializerBenchmark.class, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return redisSerializer.deserialize(encoded);
+    }
+
+    static final class SampleData {
+
+        private SampleData() {
+        }
+
+        static Product product(Long id) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Wireless Headphones " + id);
+            product.setDescription("Noise cancelling over-ear headphones with 30h battery life");
+            product.setPrice(new BigDecimal("199.99"));
+            product.setStock(120);
+            product.setCategory("Electronics");
+            product.setImageUrl("https://example.com/images/" + id + ".jpg");
+            product.setCreatedAt(new Date());
+            product.setUpdatedAt(new Date());
+            return product;
+        }
+
+        static Order order(Long id) {
+            User user = new User();
+            user.setId(42L);
+            user.setUsername("user42");
+            user.setEmail("user42@example.com");
+            user.setPassword("$2a$10$eVw7kD5u93qN2cQ1Q5Q6ROQ6Nv7zq3U3q3U3q3U3q3U3q3U3q3U3");
+            user.setCreatedAt(new Date());
+
+            Order order = new Order();
+            order.setId(id);
+            order.setOrderNo("ORD" + (1000000000L + id));
+            order.setUser(user);
+            order.setTotalAmount(new BigDecimal("399.98"));
+            order.setTotalQuantity(2);
+            order.setStatus("PENDING");
+            order.setShippingAddress("No. 1 Example Road, Shanghai");
+            order.setPaymentMethod("ALIPAY");
+            order.setCreatedAt(new Date());
+            order.setUpdatedAt(new Date());
+            return order;
+        }
+
+        static List<Order> orders(int size) {
+            List<Order> orders = new ArrayList<>(size);
+            for (long i = 1; i <= size; i++) {
+                orders.add(order(i));
+            }
+            return orders;
+        }
+    }
+}
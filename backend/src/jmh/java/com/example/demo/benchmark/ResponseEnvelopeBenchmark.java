@@ -0,0 +1,80 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Product;
+import com.example.demo.util.ResponseUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResponseUtil响应封装：只构建ResponseEntity，以及构建后按Spring MVC的ObjectMapper写出响应体
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEnvelopeBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private Product product;
+
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        product = RedisSerializerBenchmark.SampleData.product(1L);
+        products = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            products.add(RedisSerializerBenchmark.SampleData.product(i));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> success() {
+        return ResponseUtil.success(product);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> page() {
+        return ResponseUtil.page(products, (long) size);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> error() {
+        return ResponseUtil.badRequest("Insufficient stock for product: " + size);
+    }
+
+    @Benchmark
+    public byte[] successWritten() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ResponseUtil.success(product).getBody());
+    }
+
+    @Benchmark
+    public byte[] pageWritten() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ResponseUtil.page(products, (long) size).getBody());
+    }
+}
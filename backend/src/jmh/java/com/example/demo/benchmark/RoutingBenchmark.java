@@ -0,0 +1,125 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.DataSourceContextHolder;
+import com.example.demo.config.DataSourceType;
+import com.example.demo.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读写分离路由的额外开销：直接从连接池取连接作为基线，对比经ReplicaRoutingDataSource取主库连接、
+ * 按GtidAwareTransactionManager.doBegin的方式设置只读标记后取从库连接，以及单独的从库选择。
+ * 主从库都是H2内存库的Hikari连接池，只测连接获取和归还，不执行SQL
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class RoutingBenchmark {
+
+    @Param({"1", "3"})
+    private int replicas;
+
+    private HikariDataSource master;
+
+    private LookupRoutingDataSource routingDataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        master = pool("master");
+        List<ReplicaRoutingDataSource.Replica> replicaList = new ArrayList<>(replicas);
+        for (int i = 1; i <= replicas; i++) {
+            replicaList.add(new ReplicaRoutingDataSource.Replica("slave" + i, pool("slave" + i), 1));
+        }
+        routingDataSource = new LookupRoutingDataSource(master, replicaList);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        routingDataSource.destroy();
+    }
+
+    @Benchmark
+    public void directConnection() throws SQLException {
+        try (Connection connection = master.getConnection()) {
+            connection.isReadOnly();
+        }
+    }
+
+    @Benchmark
+    public void routedMasterConnection() throws SQLException {
+        DataSourceContextHolder.setDataSourceKey(DataSourceType.MASTER.name());
+        try (Connection connection = routingDataSource.getConnection()) {
+            connection.isReadOnly();
+        } finally {
+            DataSourceContextHolder.clearDataSourceKey();
+        }
+    }
+
+    @Benchmark
+    public void routedReplicaConnection() throws SQLException {
+        DataSourceContextHolder.setDataSourceKey(DataSourceType.SLAVE.name());
+        try (Connection connection = routingDataSource.getConnection()) {
+            connection.isReadOnly();
+        } finally {
+            DataSourceContextHolder.clearDataSourceKey();
+        }
+    }
+
+    @Benchmark
+    public Object replicaSelection() {
+        DataSourceContextHolder.setDataSourceKey(DataSourceType.SLAVE.name());
+        try {
+            return routingDataSource.lookupKey();
+        } finally {
+            DataSourceContextHolder.clearDataSourceKey();
+        }
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(8);
+        config.setMinimumIdle(8);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * 暴露路由键的计算，单独测量从库选择
+     */
+    static final class LookupRoutingDataSource extends ReplicaRoutingDataSource {
+
+        LookupRoutingDataSource(HikariDataSource master, List<Replica> replicas) {
+            super(master, replicas);
+        }
+
+        Object lookupKey() {
+            return determineCurrentLookupKey();
+        }
+    }
+}
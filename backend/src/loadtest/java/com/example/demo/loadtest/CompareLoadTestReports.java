@@ -0,0 +1,26 @@
+package com.example.demo.loadtest;
+
+import java.io.File;
+
+/**
+ * 对比两次ScenarioLoadTest的结果文件，不发起请求：loadtest.baseline为基线版本，loadtest.report为待比较版本，
+ * 退化超过loadtest.tolerance百分比时以1退出。
+ * 用法：mvn -Pload-test test-compile exec:exec -Dloadtest.main=com.example.demo.loadtest.CompareLoadTestReports
+ * -Dloadtest.baseline=base.json -Dloadtest.report=target/loadtest-report.json
+ */
+public class CompareLoadTestReports {
+
+    public static void main(String[] args) throws Exception {
+        String baselinePath = System.getProperty("loadtest.baseline", "");
+        String reportPath = System.getProperty("loadtest.report", "target/loadtest-report.json");
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "10"));
+        if (baselinePath.isBlank()) {
+            throw new IllegalArgumentException("loadtest.baseline is required");
+        }
+
+        LoadTestReport baseline = LoadTestReport.read(new File(baselinePath));
+        LoadTestReport report = LoadTestReport.read(new File(reportPath));
+        System.out.printf("baseline=%s report=%s%n", baselinePath, reportPath);
+        System.exit(report.compareTo(baseline, tolerance) ? 0 : 1);
+    }
+}
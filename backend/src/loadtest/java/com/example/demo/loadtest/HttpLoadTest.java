@@ -0,0 +1,102 @@
+package com.example.demo.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 闭环压测：concurrency个客户端各自循环发送GET请求，先预热再统计吞吐量和平均延迟。
+ * 用法：mvn -Pload-test test-compile exec:exec -Dloadtest.url=http://localhost:8080/api/products/1
+ * -Dloadtest.concurrency=500 -Dloadtest.duration=30，分别在app.virtual-threads.enabled为true/false时运行并对比
+ */
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url", "http://localhost:8080/api/products/1");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 500);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+        int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+
+        System.out.printf("url=%s concurrency=%d warmup=%ds duration=%ds%n", url, concurrency, warmupSeconds, durationSeconds);
+        run(client, request, concurrency, warmupSeconds, false);
+        Result result = run(client, request, concurrency, durationSeconds, true);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s meanLatency=%.2f ms maxLatency=%.2f ms%n",
+                result.requests, result.errors, result.requests / (double) durationSeconds,
+                result.requests == 0 ? 0 : result.totalNanos / 1e6 / result.requests, result.maxNanos / 1e6);
+        System.exit(0);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds, boolean measure)
+            throws Exception {
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder totalNanos = new LongAdder();
+        long[] maxNanos = new long[concurrency];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int worker = i;
+            futures.add(workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.increment();
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    long elapsed = System.nanoTime() - start;
+                    requests.increment();
+                    totalNanos.add(elapsed);
+                    maxNanos[worker] = Math.max(maxNanos[worker], elapsed);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+
+        Result result = new Result();
+        if (measure) {
+            result.requests = requests.sum();
+            result.errors = errors.sum();
+            result.totalNanos = totalNanos.sum();
+            for (long max : maxNanos) {
+                result.maxNanos = Math.max(result.maxNanos, max);
+            }
+        }
+        return result;
+    }
+
+    private static final class Result {
+
+        private long requests;
+
+        private long errors;
+
+        private long totalNanos;
+
+        private long maxNanos;
+    }
+}
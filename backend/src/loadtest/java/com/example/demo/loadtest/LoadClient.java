@@ -0,0 +1,125 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测用HTTP客户端：按请求名（如"GET /api/products/{id}"）记录延迟直方图（微秒）和失败次数，
+ * recording为false时只发请求不记录，用于预热和准备数据。状态码>=400或请求异常时抛出RequestFailedException
+ */
+final class LoadClient {
+
+    private final HttpClient client;
+
+    private final String baseUrl;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private volatile boolean recording;
+
+    LoadClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+    }
+
+    JsonNode get(String name, String path) {
+        return send(name, request(path).GET().build());
+    }
+
+    JsonNode post(String name, String path, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body for " + name, e);
+        }
+        return send(name, request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build());
+    }
+
+    JsonNode put(String name, String path) {
+        return send(name, request(path).PUT(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private JsonNode send(String name, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            record(name, start, false);
+            throw new RequestFailedException(name + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestFailedException(name + " interrupted");
+        }
+        boolean success = response.statusCode() < 400;
+        record(name, start, success);
+        if (!success) {
+            throw new RequestFailedException(name + " returned " + response.statusCode());
+        }
+        try {
+            return response.body().length == 0 ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new RequestFailedException(name + " returned invalid JSON");
+        }
+    }
+
+    private void record(String name, long startNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        histograms.computeIfAbsent(name, key -> new ConcurrentHistogram(3))
+                .recordValue(Math.max(1, (System.nanoTime() - startNanos) / 1000));
+        if (!success) {
+            errors.computeIfAbsent(name, key -> new LongAdder()).increment();
+        }
+    }
+
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    Map<String, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    long getErrors(String name) {
+        LongAdder counter = errors.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    static final class RequestFailedException extends RuntimeException {
+
+        RequestFailedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
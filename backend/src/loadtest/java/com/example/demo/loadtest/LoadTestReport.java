@@ -0,0 +1,101 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测结果：每个场景和每类请求的吞吐量与延迟分位数（毫秒），可写出为JSON，
+ * 并与另一次运行（例如上一个版本）的结果对比
+ */
+record LoadTestReport(String baseUrl, String mix, int concurrency, double rate, int durationSeconds, long timestamp,
+                      List<Entry> entries) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record Entry(String name, long count, long errors, double throughput, double mean, double p50, double p90,
+                 double p99, double p999, double max) {
+
+        static Entry of(String name, Histogram histogram, long errors, int durationSeconds) {
+            return new Entry(name, histogram.getTotalCount(), errors,
+                    histogram.getTotalCount() / (double) durationSeconds,
+                    histogram.getMean() / 1000.0,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    void print() {
+        System.out.printf("%n%-40s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "name", "count", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Entry entry : entries) {
+            System.out.printf("%-40s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.name(), entry.count(), entry.errors(), entry.throughput(),
+                    entry.p50(), entry.p90(), entry.p99(), entry.p999(), entry.max());
+        }
+    }
+
+    void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        OBJECT_MAPPER.writeValue(file, this);
+    }
+
+    static LoadTestReport read(File file) throws IOException {
+        return OBJECT_MAPPER.readValue(file, LoadTestReport.class);
+    }
+
+    /**
+     * 与基线逐项对比，吞吐量下降或p99上升超过tolerancePercent时视为退化；返回是否没有退化
+     */
+    boolean compareTo(LoadTestReport baseline, double tolerancePercent) {
+        Map<String, Entry> baselineEntries = new LinkedHashMap<>();
+        for (Entry entry : baseline.entries()) {
+            baselineEntries.put(entry.name(), entry);
+        }
+        if (!mix.equals(baseline.mix()) || concurrency != baseline.concurrency() || rate != baseline.rate()) {
+            System.out.printf("%nWARNING: load differs from baseline (mix=%s concurrency=%d rate=%s), results are not comparable%n",
+                    baseline.mix(), baseline.concurrency(), baseline.rate());
+        }
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%n%-40s %12s %12s %9s %12s %12s %9s%n",
+                "name", "base req/s", "req/s", "change", "base p99", "p99", "change");
+        for (Entry entry : entries) {
+            Entry base = baselineEntries.get(entry.name());
+            if (base == null) {
+                continue;
+            }
+            double throughputChange = change(base.throughput(), entry.throughput());
+            double p99Change = change(base.p99(), entry.p99());
+            boolean regressed = throughputChange < -tolerancePercent || p99Change > tolerancePercent;
+            System.out.printf("%-40s %12.1f %12.1f %8.1f%% %12.2f %12.2f %8.1f%%%s%n",
+                    entry.name(), base.throughput(), entry.throughput(), throughputChange,
+                    base.p99(), entry.p99(), p99Change, regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions.add(entry.name());
+            }
+        }
+        if (regressions.isEmpty()) {
+            System.out.printf("%nNo regression beyond %.1f%%%n", tolerancePercent);
+            return true;
+        }
+        System.out.printf("%nRegressions beyond %.1f%%: %s%n", tolerancePercent, regressions);
+        return false;
+    }
+
+    private static double change(double base, double current) {
+        return base == 0 ? 0 : (current - base) * 100.0 / base;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 压测场景，每个场景是一个用户的一次完整操作，由若干个请求组成；任一请求失败时整个场景记为失败
+ */
+enum Scenario {
+
+    /**
+     * 浏览：商品列表第一页、商品详情、同类商品
+     */
+    BROWSE {
+        @Override
+        void run(LoadClient client, TestData data, ThreadLocalRandom random) {
+            client.get("GET /api/products", "/api/products?limit=20");
+            client.get("GET /api/products/{id}", "/api/products/" + data.randomProduct(random).id());
+            client.get("GET /api/products/category/{category}",
+                    "/api/products/category/" + encode(data.randomCategory(random)));
+        }
+    },
+
+    /**
+     * 搜索：输入前缀取联想词，再按关键词搜索
+     */
+    SEARCH {
+        @Override
+        void run(LoadClient client, TestData data, ThreadLocalRandom random) {
+            String keyword = data.randomKeyword(random);
+            client.get("GET /api/products/suggest", "/api/products/suggest?prefix=" + encode(keyword.substring(0, 2)));
+            client.get("GET /api/products/search", "/api/products/search?limit=20&keyword=" + encode(keyword));
+        }
+    },
+
+    /**
+     * 下单：查看用户信息和1~3个商品后下单，再查看订单详情
+     */
+    CHECKOUT {
+        @Override
+        void run(LoadClient client, TestData data, ThreadLocalRandom random) {
+            long userId = data.randomUserId(random);
+            client.get("GET /api/users/{id}", "/api/users/" + userId);
+            List<TestData.Product> products = new ArrayList<>();
+            for (int i = random.nextInt(1, 4); i > 0; i--) {
+                TestData.Product product = data.randomStockedProduct(random);
+                client.get("GET /api/products/{id}", "/api/products/" + product.id());
+                products.add(product);
+            }
+            long orderId = placeOrder(client, userId, products);
+            client.get("GET /api/orders/{id}", "/api/orders/" + orderId);
+        }
+    },
+
+    /**
+     * 取消：下单后立即取消，再查看用户的订单列表
+     */
+    CANCEL {
+        @Override
+        void run(LoadClient client, TestData data, ThreadLocalRandom random) {
+            long userId = data.randomUserId(random);
+            long orderId = placeOrder(client, userId, List.of(data.randomStockedProduct(random)));
+            client.put("PUT /api/orders/{id}/cancel", "/api/orders/" + orderId + "/cancel");
+            client.get("GET /api/orders/user/{userId}", "/api/orders/user/" + userId);
+        }
+    };
+
+    abstract void run(LoadClient client, TestData data, ThreadLocalRandom random);
+
+    String label() {
+        return "scenario " + name().toLowerCase(Locale.ROOT);
+    }
+
+    private static long placeOrder(LoadClient client, long userId, List<TestData.Product> products) {
+        List<Map<String, Object>> items = new ArrayList<>(products.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (TestData.Product product : products) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("productId", product.id());
+            item.put("productName", "Product " + product.id());
+            item.put("quantity", 1);
+            item.put("price", product.price());
+            items.add(item);
+            total = total.add(product.price());
+        }
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("userId", userId);
+        order.put("totalAmount", total);
+        order.put("totalQuantity", products.size());
+        order.put("shippingAddress", "No. 1 Example Road, Shanghai");
+        order.put("paymentMethod", "ALIPAY");
+        order.put("items", items);
+        JsonNode response = client.post("POST /api/orders", "/api/orders", order);
+        return response.path("data").path("id").asLong();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.loadtest.LoadClient.RequestFailedException;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 场景压测：concurrency个虚拟用户按mix中的权重随机执行浏览、搜索、下单、取消场景，
+ * 预热后统计每个场景和每类请求的吞吐量与延迟分布（HdrHistogram），结果写入loadtest.report。
+ * rate大于0时按固定速率（场景/秒）发起，延迟从计划开始时间算起，避免服务变慢时少计排队时间；
+ * 为0时各用户执行完一个场景立即开始下一个。
+ * 指定loadtest.baseline（另一次运行的结果文件）时与之对比，退化超过loadtest.tolerance百分比则以1退出。
+ * 用法：mvn -Pload-test test-compile exec:exec -Dloadtest.main=com.example.demo.loadtest.ScenarioLoadTest
+ * -Dloadtest.concurrency=50 -Dloadtest.mix=browse=60,search=25,checkout=10,cancel=5
+ */
+public class ScenarioLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+        String mix = System.getProperty("loadtest.mix", "browse=60,search=25,checkout=10,cancel=5");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 50);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+        int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "0"));
+        int seedProducts = Integer.getInteger("loadtest.seed.products", 200);
+        int seedUsers = Integer.getInteger("loadtest.seed.users", 100);
+        String reportPath = System.getProperty("loadtest.report", "target/loadtest-report.json");
+        String baselinePath = System.getProperty("loadtest.baseline", "");
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "10"));
+
+        Map<Scenario, Integer> weights = parseMix(mix);
+        LoadClient client = new LoadClient(baseUrl);
+        TestData data = TestData.prepare(client, seedProducts, seedUsers);
+        System.out.printf("baseUrl=%s mix=%s concurrency=%d rate=%s warmup=%ds duration=%ds products=%d users=%d%n",
+                baseUrl, mix, concurrency, rate > 0 ? rate + "/s" : "closed-loop", warmupSeconds, durationSeconds,
+                data.productCount(), data.userCount());
+
+        Map<Scenario, Histogram> scenarioHistograms = new EnumMap<>(Scenario.class);
+        Map<Scenario, LongAdder> scenarioErrors = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : weights.keySet()) {
+            scenarioHistograms.put(scenario, new ConcurrentHistogram(3));
+            scenarioErrors.put(scenario, new LongAdder());
+        }
+
+        run(client, data, weights, concurrency, rate, warmupSeconds, null, null);
+        client.setRecording(true);
+        run(client, data, weights, concurrency, rate, durationSeconds, scenarioHistograms, scenarioErrors);
+        client.setRecording(false);
+
+        List<LoadTestReport.Entry> entries = new ArrayList<>();
+        for (Map.Entry<Scenario, Histogram> entry : scenarioHistograms.entrySet()) {
+            entries.add(LoadTestReport.Entry.of(entry.getKey().label(), entry.getValue(),
+                    scenarioErrors.get(entry.getKey()).sum(), durationSeconds));
+        }
+        for (Map.Entry<String, Histogram> entry : client.getHistograms().entrySet()) {
+            entries.add(LoadTestReport.Entry.of(entry.getKey(), entry.getValue(),
+                    client.getErrors(entry.getKey()), durationSeconds));
+        }
+        LoadTestReport report = new LoadTestReport(baseUrl, mix, concurrency, rate, durationSeconds,
+                System.currentTimeMillis(), entries);
+        report.print();
+        report.write(new File(reportPath));
+        System.out.println("report: " + reportPath);
+
+        boolean passed = true;
+        if (!baselinePath.isBlank()) {
+            passed = report.compareTo(LoadTestReport.read(new File(baselinePath)), tolerance);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * histograms为null时为预热，不记录结果
+     */
+    private static void run(LoadClient client, TestData data, Map<Scenario, Integer> weights, int concurrency,
+                            double rate, int seconds, Map<Scenario, Histogram> histograms,
+                            Map<Scenario, LongAdder> errors) throws Exception {
+        Scenario[] scenarios = weights.keySet().toArray(new Scenario[0]);
+        int[] cumulative = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += weights.get(scenarios[i]);
+            cumulative[i] = total;
+        }
+        int totalWeight = total;
+        // 每个用户的发起间隔，合计为rate个场景/秒
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / rate) : 0;
+        long begin = System.nanoTime();
+        long deadline = begin + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long firstStart = begin + (intervalNanos > 0 ? intervalNanos * i / concurrency : 0);
+            futures.add(workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long intendedStart = firstStart;
+                while (true) {
+                    long now = System.nanoTime();
+                    if (intervalNanos > 0) {
+                        if (intendedStart - now > 0) {
+                            LockSupport.parkNanos(intendedStart - now);
+                        }
+                    } else {
+                        intendedStart = now;
+                    }
+                    if (intendedStart >= deadline) {
+                        return null;
+                    }
+                    int pick = random.nextInt(totalWeight);
+                    int index = 0;
+                    while (cumulative[index] <= pick) {
+                        index++;
+                    }
+                    Scenario scenario = scenarios[index];
+                    boolean success = true;
+                    try {
+                        scenario.run(client, data, random);
+                    } catch (RequestFailedException e) {
+                        success = false;
+                    }
+                    if (histograms != null) {
+                        histograms.get(scenario).recordValue(Math.max(1, (System.nanoTime() - intendedStart) / 1000));
+                        if (!success) {
+                            errors.get(scenario).increment();
+                        }
+                    }
+                    intendedStart += intervalNanos;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * 解析"browse=60,search=25"形式的场景权重，未列出的场景不执行
+     */
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String part : mix.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Scenario.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must contain at least one positive weight: " + mix);
+        }
+        return weights;
+    }
+}
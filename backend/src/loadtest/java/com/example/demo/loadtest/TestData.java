@@ -0,0 +1,156 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 压测使用的商品和用户：先通过分页接口读取已有数据，不足时通过接口创建。
+ * 下单场景只使用库存充足的商品，避免库存耗尽后的失败掩盖真实延迟
+ */
+final class TestData {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Home", "Sports", "Toys"};
+
+    private static final String[] WORDS = {"Wireless", "Portable", "Classic", "Smart", "Compact", "Premium",
+            "Outdoor", "Digital", "Ergonomic", "Vintage"};
+
+    private static final int SEED_STOCK = 1_000_000;
+
+    private static final int STOCKED_THRESHOLD = 10_000;
+
+    private static final int PAGE_SIZE = 500;
+
+    private final List<Product> products = new ArrayList<>();
+
+    private final List<Product> stockedProducts = new ArrayList<>();
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    private final List<String> categories = new ArrayList<>();
+
+    private final List<String> keywords = new ArrayList<>();
+
+    static TestData prepare(LoadClient client, int productCount, int userCount) {
+        TestData data = new TestData();
+        data.loadProducts(client);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = data.stockedProducts.size(); i < productCount; i++) {
+            data.add(client.post("seed", "/api/products", newProduct(run, i)).path("data"));
+        }
+        data.loadUsers(client);
+        for (int i = data.userIds.size(); i < userCount; i++) {
+            data.userIds.add(client.post("seed", "/api/users", newUser(run, i)).path("id").asLong());
+        }
+        if (data.stockedProducts.isEmpty() || data.userIds.isEmpty()) {
+            throw new IllegalStateException("No products or users available, set loadtest.seed.products/users above 0");
+        }
+        return data;
+    }
+
+    private void loadProducts(LoadClient client) {
+        String after = "0";
+        while (true) {
+            JsonNode page = client.get("seed", "/api/products?limit=" + PAGE_SIZE + "&after=" + after);
+            for (JsonNode product : page.path("data")) {
+                add(product);
+            }
+            JsonNode next = page.path("nextAfter");
+            if (next.isNull() || next.isMissingNode()) {
+                return;
+            }
+            after = next.asText();
+        }
+    }
+
+    private void loadUsers(LoadClient client) {
+        long after = 0;
+        while (true) {
+            JsonNode page = client.get("seed", "/api/users?limit=" + PAGE_SIZE + "&after=" + after);
+            for (JsonNode user : page) {
+                after = user.path("id").asLong();
+                userIds.add(after);
+            }
+            if (page.size() < PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private void add(JsonNode node) {
+        Product product = new Product(node.path("id").asLong(), new BigDecimal(node.path("price").asText("0")));
+        products.add(product);
+        if (node.path("stock").asInt() >= STOCKED_THRESHOLD) {
+            stockedProducts.add(product);
+        }
+        String category = node.path("category").asText(null);
+        if (category != null && !categories.contains(category)) {
+            categories.add(category);
+        }
+        String name = node.path("name").asText("");
+        int space = name.indexOf(' ');
+        String keyword = (space > 0 ? name.substring(0, space) : name).toLowerCase(Locale.ROOT);
+        if (keyword.length() >= 2 && !keywords.contains(keyword)) {
+            keywords.add(keyword);
+        }
+    }
+
+    private static Map<String, Object> newProduct(String run, int index) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("name", WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " Item " + run + "-" + index);
+        product.put("description", "Load test product " + index);
+        product.put("price", BigDecimal.valueOf(random.nextInt(100, 100_000), 2));
+        product.put("stock", SEED_STOCK);
+        product.put("category", CATEGORIES[index % CATEGORIES.length]);
+        product.put("status", true);
+        return product;
+    }
+
+    private static Map<String, Object> newUser(String run, int index) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("username", "lt-" + run + "-" + index);
+        user.put("password", "loadtest");
+        user.put("email", "lt-" + run + "-" + index + "@example.com");
+        user.put("fullName", "Load Test " + index);
+        return user;
+    }
+
+    Product randomProduct(ThreadLocalRandom random) {
+        return products.get(random.nextInt(products.size()));
+    }
+
+    Product randomStockedProduct(ThreadLocalRandom random) {
+        return stockedProducts.get(random.nextInt(stockedProducts.size()));
+    }
+
+    long randomUserId(ThreadLocalRandom random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    String randomCategory(ThreadLocalRandom random) {
+        return categories.isEmpty() ? CATEGORIES[0] : categories.get(random.nextInt(categories.size()));
+    }
+
+    String randomKeyword(ThreadLocalRandom random) {
+        return keywords.isEmpty() ? WORDS[0].toLowerCase(Locale.ROOT) : keywords.get(random.nextInt(keywords.size()));
+    }
+
+    int productCount() {
+        return products.size();
+    }
+
+    int userCount() {
+        return userIds.size();
+    }
+
+    record Product(long id, BigDecimal price) {
+    }
+}
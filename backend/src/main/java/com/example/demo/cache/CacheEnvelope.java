@@ -0,0 +1,30 @@
+package com.example.demo.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 缓存值外层包装，记录过期时间和加载耗时，用于概率提前刷新
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Object value;
+
+    /**
+     * 过期时间戳（毫秒），0表示永不过期
+     */
+    private long expiresAt;
+
+    /**
+     * 上次加载耗时（毫秒），0表示不是由加载产生的，不参与提前刷新
+     */
+    private long loadMillis;
+}
@@ -0,0 +1,119 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 实体变化到缓存键的依赖映射：只失效受影响的条目，不再整体清空缓存。
+ * 在事务内调用时，失效动作推迟到提交之后执行
+ */
+@Component
+public class CacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheTagStore tagStore;
+
+    public void productChanged(Product product, boolean created) {
+        afterCommit(() -> {
+            List<String> tags = new ArrayList<>();
+            // 已缓存的、包含该商品的列表（含旧分类下的结果）
+            tags.add(CacheTags.product(product.getId()));
+            if (created) {
+                tags.add(CacheTags.tail("products"));
+            }
+            // 变更后该商品会出现在其中的列表（全部分页）
+            if (product.getCategory() != null) {
+                tags.add(CacheTags.list("productsByCategory", product.getCategory()));
+            }
+            if (Boolean.TRUE.equals(product.getStatus())) {
+                tags.add(CacheTags.list("activeProducts", null));
+            }
+            tagStore.invalidate(tags);
+        });
+    }
+
+    /**
+     * 下单、取消订单和热点库存回写只改变库存：失效单个商品和包含这些商品的各个列表分页
+     */
+    public void stockChanged(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<String> tags = productIds.stream().map(CacheTags::product).toList();
+        afterCommit(() -> tagStore.invalidate(tags));
+    }
+
+    public void productDeleted(Long id) {
+        afterCommit(() -> {
+            evict("product", id);
+            tagStore.invalidate(List.of(CacheTags.product(id)));
+        });
+    }
+
+    public void orderCreated(Order order) {
+        afterCommit(() -> {
+            // 新订单id最大，只出现在各列表的最后一页，以及按id降序的用户订单列表的第一页
+            tagStore.invalidate(List.of(CacheTags.tail("orders"),
+                    CacheTags.head(CacheTags.list("userOrders", order.getUser().getId())),
+                    CacheTags.tail(CacheTags.list("ordersByStatus", order.getStatus()))));
+            // 创建前查询过的订单详情缓存了"不存在"
+            evict("orderDetail", order.getId());
+            evict("orderDetailByNo", order.getOrderNo());
+        });
+    }
+
+    public void orderStatusChanged(Order order) {
+        afterCommit(() -> {
+            // 包含该订单的分页、用户订单列表、订单详情和原状态列表，以及新状态列表的全部分页
+            tagStore.invalidate(List.of(CacheTags.order(order.getId()),
+                    CacheTags.list("ordersByStatus", order.getStatus())));
+        });
+    }
+
+    public void userChanged(User user, boolean created) {
+        afterCommit(() -> {
+            List<String> tags = new ArrayList<>();
+            tags.add(CacheTags.user(user.getId()));
+            if (created) {
+                tags.add(CacheTags.tail("users"));
+            }
+            tagStore.invalidate(tags);
+            // 新用户名之前可能缓存过"不存在"
+            evict("userByUsername", user.getUsername());
+        });
+    }
+
+    public void userDeleted(Long id) {
+        afterCommit(() -> {
+            evict("user", id);
+            tagStore.invalidate(List.of(CacheTags.user(id)));
+        });
+    }
+
+    private void evict(String cacheName, Object key) {
+        if (key == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionUtil.afterCommit(action);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 缓存未命中时的防击穿控制：
+ * 同一实例内同一个键只有一个线程加载，其余线程等待同一个Future（最多等待锁超时时间，超时后自己加载）；
+ * 实例之间用短期Redis锁保证只有一个实例加载，其他实例返回旧值或轮询等待结果
+ */
+public class CacheLoadGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheLoadGuard.class);
+
+    private static final String LOCK_KEY_PREFIX = "cache-lock:";
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Duration lockTimeout;
+
+    private final double earlyRefreshBeta;
+
+    private final double ttlJitter;
+
+    /**
+     * @param earlyRefreshBeta 提前刷新系数，越大越早刷新，0表示关闭
+     * @param ttlJitter        过期时间随机延长的最大比例，例如0.1表示最多延长10%
+     */
+    public CacheLoadGuard(StringRedisTemplate redisTemplate, Duration lockTimeout,
+                          double earlyRefreshBeta, double ttlJitter) {
+        this.redisTemplate = redisTemplate;
+        this.lockTimeout = lockTimeout;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.ttlJitter = ttlJitter;
+    }
+
+    /**
+     * 为条目加上随机抖动，避免同一批写入的键在同一时刻集中过期
+     */
+    public Duration jitter(Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative() || ttlJitter <= 0) {
+            return ttl;
+        }
+        long extra = (long) (ttl.toMillis() * ttlJitter * ThreadLocalRandom.current().nextDouble());
+        return ttl.plusMillis(extra);
+    }
+
+    /**
+     * 概率提前刷新（XFetch）：越接近过期、加载越慢，越可能由当前请求提前重新加载
+     */
+    public boolean shouldRefreshEarly(CacheEnvelope envelope) {
+        if (earlyRefreshBeta <= 0 || envelope.getExpiresAt() <= 0 || envelope.getLoadMillis() <= 0) {
+            return false;
+        }
+        double gap = -envelope.getLoadMillis() * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= envelope.getExpiresAt();
+    }
+
+    /**
+     * 单飞加载。有旧值时（提前刷新）其他加载者直接返回旧值；没有旧值时等待正在进行的加载
+     *
+     * @param stale   旧值，没有旧值时为null
+     * @param recheck 重新查询缓存，返回null表示仍未命中
+     */
+    public Object load(String cacheKey, ValueWrapper stale, Callable<Object> loader,
+                       Supplier<ValueWrapper> recheck) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(cacheKey, future);
+        if (existing != null) {
+            return stale != null ? stale.get() : await(cacheKey, existing, loader);
+        }
+        try {
+            Object value = loadAcrossInstances(cacheKey, stale, loader, recheck);
+            future.complete(value);
+            return value;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, future);
+        }
+    }
+
+    private Object loadAcrossInstances(String cacheKey, ValueWrapper stale, Callable<Object> loader,
+                                       Supplier<ValueWrapper> recheck) throws Exception {
+        String lockKey = LOCK_KEY_PREFIX + cacheKey;
+        String token = UUID.randomUUID().toString();
+        if (tryLock(lockKey, token)) {
+            try {
+                return loader.call();
+            } finally {
+                unlock(lockKey, token);
+            }
+        }
+        if (stale != null) {
+            return stale.get();
+        }
+
+        // 其他实例正在加载，等待它写入缓存；超时或锁已释放仍未命中时自己加载
+        long deadline = System.currentTimeMillis() + lockTimeout.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            ValueWrapper cached = recheck.get();
+            if (cached != null) {
+                return cached.get();
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(lockKey))) {
+                break;
+            }
+        }
+        return loader.call();
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTimeout));
+        } catch (RuntimeException e) {
+            // Redis锁不可用时退化为仅实例内合并
+            logger.warn("获取缓存加载锁失败: {}", lockKey, e);
+            return true;
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            logger.warn("释放缓存加载锁失败: {}", lockKey, e);
+        }
+    }
+
+    /**
+     * 等待实例内正在进行的加载，最多等待lockTimeout；加载线程卡住（例如数据库无响应）时不无限期阻塞，超时后自己加载
+     */
+    private Object await(String cacheKey, CompletableFuture<Object> future, Callable<Object> loader) throws Exception {
+        try {
+            return future.get(lockTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("等待缓存加载超时，直接加载: {}", cacheKey);
+            return loader.call();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.cache;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 基于Redis Set的缓存标签索引：每个标签对应一个Set，保存依赖该标签的缓存键
+ */
+public class CacheTagStore {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final NearCacheCoordinator nearCacheCoordinator;
+
+    public CacheTagStore(StringRedisTemplate redisTemplate, NearCacheCoordinator nearCacheCoordinator) {
+        this.redisTemplate = redisTemplate;
+        this.nearCacheCoordinator = nearCacheCoordinator;
+    }
+
+    /**
+     * 登记缓存键的标签；标签Set的过期时间与缓存一致，过期条目不会无限累积
+     */
+    public void register(String cacheKey, Collection<String> tags, Duration ttl) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        byte[] rawKey = cacheKey.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String tag : tags) {
+                byte[] tagKey = (CacheTags.TAG_KEY_PREFIX + tag).getBytes(StandardCharsets.UTF_8);
+                connection.setCommands().sAdd(tagKey, rawKey);
+                if (!ttl.isZero() && !ttl.isNegative()) {
+                    connection.keyCommands().expire(tagKey, ttl.getSeconds());
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 删除标签下的全部缓存键；只移除本次读到的成员，并发新登记的键保留在标签中
+     */
+    public void invalidate(Collection<String> tags) {
+        for (String tag : tags) {
+            invalidate(tag, cacheKey -> true);
+        }
+    }
+
+    /**
+     * 删除标签下满足条件的缓存键
+     */
+    public void invalidate(String tag, Predicate<String> filter) {
+        String tagKey = CacheTags.TAG_KEY_PREFIX + tag;
+        Set<String> members = redisTemplate.opsForSet().members(tagKey);
+        if (members == null || members.isEmpty()) {
+            return;
+        }
+        List<String> matched = new ArrayList<>();
+        for (String member : members) {
+            if (filter.test(member)) {
+                matched.add(member);
+            }
+        }
+        if (matched.isEmpty()) {
+            return;
+        }
+        redisTemplate.delete(matched);
+        redisTemplate.opsForSet().remove(tagKey, matched.toArray());
+        // 直接删除的Redis键同样要让各实例的本地缓存失效
+        nearCacheCoordinator.invalidate(matched);
+    }
+}
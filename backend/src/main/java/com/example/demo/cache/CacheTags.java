@@ -0,0 +1,148 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Order;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 缓存依赖标签：记录每个缓存条目依赖哪些实体，实体变化时只失效相关条目
+ */
+public final class CacheTags {
+
+    public static final String TAG_KEY_PREFIX = "cache-tag:";
+
+    /**
+     * 按游标分页缓存的列表，key格式为"after:limit"
+     */
+    private static final Set<String> PAGE_CACHES = Set.of("products", "orders", "users");
+
+    /**
+     * 按条件过滤后游标分页缓存的列表，key格式为"条件:after:limit"（activeProducts没有条件，为"after:limit"）
+     */
+    private static final Set<String> FILTERED_PAGE_CACHES =
+            Set.of("productsByCategory", "activeProducts", "userOrders", "ordersByStatus");
+
+    /**
+     * 按id降序分页的列表，key格式为"条件:before:limit"，第一页的before为Long.MAX_VALUE
+     */
+    private static final Set<String> DESCENDING_PAGE_CACHES = Set.of("userOrders");
+
+    private CacheTags() {
+    }
+
+    public static String product(Long id) {
+        return "product:" + id;
+    }
+
+    public static String order(Long id) {
+        return "order:" + id;
+    }
+
+    public static String user(Long id) {
+        return "user:" + id;
+    }
+
+    /**
+     * 未满一页的最后一页，新增实体时只需失效这些页
+     */
+    public static String tail(String cacheName) {
+        return cacheName + ":tail";
+    }
+
+    /**
+     * 按id降序分页时的第一页，新增实体时只需失效这一页
+     */
+    public static String head(String cacheName) {
+        return cacheName + ":head";
+    }
+
+    /**
+     * 某个条件下的全部分页。实体因修改而进入该列表时，位置由id决定，不一定在最后一页，需要失效全部分页；
+     * 新建的实体id最大，只需失效tail(list(...))，按id降序的列表失效head(list(...))
+     */
+    public static String list(String cacheName, Object filter) {
+        return filter == null ? cacheName + ":list" : cacheName + ":list:" + filter;
+    }
+
+    /**
+     * 根据缓存值中包含的实体计算标签
+     */
+    public static Set<String> tagsOf(String cacheName, Object key, Object value) {
+        Set<String> tags = new HashSet<>();
+        collectEntityTags(value, tags);
+        if (PAGE_CACHES.contains(cacheName) && value instanceof Collection<?> page && page.size() < limitOf(key)) {
+            tags.add(tail(cacheName));
+        }
+        if (FILTERED_PAGE_CACHES.contains(cacheName)) {
+            String list = list(cacheName, filterOf(key));
+            tags.add(list);
+            if (value instanceof Collection<?> page && page.size() < limitOf(key)) {
+                tags.add(tail(list));
+            }
+            if (DESCENDING_PAGE_CACHES.contains(cacheName) && String.valueOf(Long.MAX_VALUE).equals(cursorOf(key))) {
+                tags.add(head(list));
+            }
+        }
+        return tags;
+    }
+
+    private static void collectEntityTags(Object value, Set<String> tags) {
+        if (value instanceof Optional<?> optional) {
+            optional.ifPresent(v -> collectEntityTags(v, tags));
+        } else if (value instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                collectEntityTags(element, tags);
+            }
+        } else if (value instanceof Product product && product.getId() != null) {
+            tags.add(product(product.getId()));
+        } else if (value instanceof Order order && order.getId() != null) {
+            tags.add(order(order.getId()));
+        } else if (value instanceof User user && user.getId() != null) {
+            tags.add(user(user.getId()));
+        } else if (value instanceof OrderDetail detail) {
+            collectEntityTags(detail.getOrder(), tags);
+            collectEntityTags(detail.getOrder().getUser(), tags);
+        } else if (value instanceof OrderSummary summary && summary.getId() != null) {
+            // 列表视图中带有用户名，用户变化时同样失效
+            tags.add(order(summary.getId()));
+            tags.add(user(summary.getUserId()));
+        }
+    }
+
+    private static int limitOf(Object key) {
+        String text = String.valueOf(key);
+        int separator = text.lastIndexOf(':');
+        try {
+            return Integer.parseInt(text.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 倒数第二段，即after或before游标
+     */
+    private static String cursorOf(Object key) {
+        String text = String.valueOf(key);
+        int limitSeparator = text.lastIndexOf(':');
+        int cursorSeparator = limitSeparator > 0 ? text.lastIndexOf(':', limitSeparator - 1) : -1;
+        return limitSeparator < 0 ? null : text.substring(cursorSeparator + 1, limitSeparator);
+    }
+
+    /**
+     * 去掉末尾的":after:limit"，没有条件时返回null
+     */
+    private static String filterOf(Object key) {
+        String text = String.valueOf(key);
+        int limitSeparator = text.lastIndexOf(':');
+        int afterSeparator = limitSeparator > 0 ? text.lastIndexOf(':', limitSeparator - 1) : -1;
+        return afterSeparator < 0 ? null : text.substring(0, afterSeparator);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Redis值序列化器：默认以Smile（二进制JSON）写入，超过阈值时再做LZ4压缩。
+ * 读取时根据头部字节识别格式，兼容已有的JSON和JDK序列化条目，便于滚动发布
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    public enum Format {
+        SMILE, JSON, JDK
+    }
+
+    private static final byte[] LZ4_MAGIC = {'L', 'Z', '4'};
+
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private static final int LZ4_HEADER_LENGTH = LZ4_MAGIC.length + Integer.BYTES;
+
+    private final Format format;
+
+    private final int compressionThreshold;
+
+    private final ObjectMapper smileMapper;
+
+    private final RedisSerializer<Object> jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    private final RedisSerializer<Object> jdkSerializer;
+
+    private final LZ4Compressor compressor;
+
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param compressionThreshold 超过该字节数才压缩，小于等于0表示不压缩
+     */
+    public CompactRedisSerializer(Format format, int compressionThreshold, ClassLoader classLoader) {
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+        this.smileMapper = createSmileMapper();
+        this.jdkSerializer = new JdkSerializationRedisSerializer(classLoader);
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = switch (format) {
+            case SMILE -> writeSmile(value);
+            case JSON -> jsonSerializer.serialize(value);
+            case JDK -> jdkSerializer.serialize(value);
+        };
+        if (compressionThreshold > 0 && bytes != null && bytes.length > compressionThreshold) {
+            return compress(bytes);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (startsWith(bytes, LZ4_MAGIC)) {
+            bytes = decompress(bytes);
+        }
+        if (startsWith(bytes, SMILE_HEADER)) {
+            return readSmile(bytes);
+        }
+        if (bytes.length > 1 && bytes[0] == (byte) 0xAC && bytes[1] == (byte) 0xED) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        return jsonSerializer.deserialize(bytes);
+    }
+
+    /**
+     * 与GenericJackson2JsonRedisSerializer相同的类型信息规则，只是换成二进制编码；
+     * 重复的属性名和类名在同一条目内以回引用表示
+     */
+    private static ObjectMapper createSmileMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return mapper;
+    }
+
+    private byte[] writeSmile(Object value) {
+        try {
+            return smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+    }
+
+    private Object readSmile(byte[] bytes) {
+        try {
+            return smileMapper.readValue(bytes, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] compress(byte[] bytes) {
+        int maxLength = compressor.maxCompressedLength(bytes.length);
+        byte[] compressed = new byte[LZ4_HEADER_LENGTH + maxLength];
+        System.arraycopy(LZ4_MAGIC, 0, compressed, 0, LZ4_MAGIC.length);
+        ByteBuffer.wrap(compressed, LZ4_MAGIC.length, Integer.BYTES).putInt(bytes.length);
+        int length = compressor.compress(bytes, 0, bytes.length, compressed, LZ4_HEADER_LENGTH, maxLength);
+        return Arrays.copyOf(compressed, LZ4_HEADER_LENGTH + length);
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        int originalLength = ByteBuffer.wrap(bytes, LZ4_MAGIC.length, Integer.BYTES).getInt();
+        byte[] restored = new byte[originalLength];
+        decompressor.decompress(bytes, LZ4_HEADER_LENGTH, restored, 0, originalLength);
+        return restored;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
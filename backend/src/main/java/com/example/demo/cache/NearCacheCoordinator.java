@@ -0,0 +1,144 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 管理各实例的L1缓存，并通过Redis发布订阅在实例间同步失效。
+ * 消息格式：第一行为发送实例id，其余每行是一个Redis缓存键，"*"开头表示清空整个缓存
+ */
+public class NearCacheCoordinator implements MessageListener {
+
+    public static final String CHANNEL = "cache:near:invalidate";
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCacheCoordinator.class);
+
+    private static final String KEY_SEPARATOR = "::";
+
+    private static final String CLEAR_PREFIX = "*";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Set<String> cacheNames;
+
+    private final long maximumSize;
+
+    private final Duration expireAfterWrite;
+
+    public NearCacheCoordinator(StringRedisTemplate redisTemplate, Set<String> cacheNames,
+                                long maximumSize, Duration expireAfterWrite) {
+        this.redisTemplate = redisTemplate;
+        this.cacheNames = cacheNames;
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    /**
+     * 为配置了本地缓存的缓存名包装L1，其余保持只用Redis
+     */
+    public Cache decorate(Cache cache) {
+        if (!cacheNames.contains(cache.getName()) || !(cache instanceof TaggedRedisCache redisCache)) {
+            return cache;
+        }
+        TwoTierCache twoTierCache = new TwoTierCache(redisCache, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build(), this);
+        caches.put(cache.getName(), twoTierCache);
+        return twoTierCache;
+    }
+
+    /**
+     * 按Redis键失效本实例和其他实例的L1，供标签失效等直接删除Redis键的路径使用
+     */
+    public void invalidate(Collection<String> cacheKeys) {
+        if (caches.isEmpty() || cacheKeys.isEmpty()) {
+            return;
+        }
+        for (String cacheKey : cacheKeys) {
+            invalidateLocal(cacheKey);
+        }
+        send(String.join("\n", cacheKeys));
+    }
+
+    void publish(String cacheKey) {
+        send(cacheKey);
+    }
+
+    void publishClear(String cacheName) {
+        send(CLEAR_PREFIX + cacheName);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] lines = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        if (lines.length < 2 || nodeId.equals(lines[0])) {
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].startsWith(CLEAR_PREFIX)) {
+                TwoTierCache cache = caches.get(lines[i].substring(CLEAR_PREFIX.length()));
+                if (cache != null) {
+                    cache.clearLocal();
+                }
+            } else {
+                invalidateLocal(lines[i]);
+            }
+        }
+    }
+
+    /**
+     * 各缓存L1/L2的命中与未命中次数
+     */
+    public Map<String, Map<String, Long>> statistics() {
+        Map<String, Map<String, Long>> statistics = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> {
+            Map<String, Long> tiers = new LinkedHashMap<>();
+            tiers.put("l1Hits", cache.getLocalHits());
+            tiers.put("l1Misses", cache.getLocalMisses());
+            tiers.put("l1Size", cache.getLocalSize());
+            tiers.put("l2Hits", cache.getRemoteHits());
+            tiers.put("l2Misses", cache.getRemoteMisses());
+            statistics.put(name, tiers);
+        });
+        return statistics;
+    }
+
+    private void invalidateLocal(String cacheKey) {
+        int separator = cacheKey.indexOf(KEY_SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+        TwoTierCache cache = caches.get(cacheKey.substring(0, separator));
+        if (cache != null) {
+            cache.invalidateLocal(cacheKey);
+        }
+    }
+
+    private void send(String body) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "\n" + body);
+        } catch (RuntimeException e) {
+            // 通知失败时其他实例的L1最多在过期时间内读到旧值
+            logger.warn("发布本地缓存失效消息失败", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 响应式读路径使用的Redis缓存，与TaggedRedisCache共用键格式（cacheName::key）、CacheEnvelope包装和依赖标签，
+ * 两条读路径互相命中对方写入的条目，写操作的失效对两边同时生效。
+ * 同一实例内相同键的并发未命中合并为一次加载
+ */
+public class ReactiveTaggedCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTaggedCache.class);
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+
+    private final CacheLoadGuard loadGuard;
+
+    private final Duration ttl;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Mono<Optional<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, CacheMeters> meters = new ConcurrentHashMap<>();
+
+    public ReactiveTaggedCache(ReactiveRedisTemplate<String, Object> redisTemplate,
+                               ReactiveStringRedisTemplate stringRedisTemplate,
+                               CacheLoadGuard loadGuard, MeterRegistry meterRegistry, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.loadGuard = loadGuard;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+    }
+
+    /**
+     * 读取缓存，未命中时订阅loader加载并写回；loader为空表示不存在，同样缓存为空值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String cacheName, Object key, Supplier<Mono<T>> loader) {
+        String cacheKey = cacheName + "::" + key;
+        CacheMeters cacheMeters = meters(cacheName);
+        return redisTemplate.opsForValue().get(cacheKey)
+                .map(storeValue -> {
+                    cacheMeters.hits().increment();
+                    return fromStoreValue(storeValue);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    cacheMeters.misses().increment();
+                    return inFlight.computeIfAbsent(cacheKey,
+                            k -> load(cacheName, key, k, loader, cacheMeters.load())
+                                    .doFinally(signal -> inFlight.remove(k))
+                                    .cache());
+                }))
+                .flatMap(value -> Mono.justOrEmpty((Optional<T>) value));
+    }
+
+    /**
+     * 直接写入缓存，用于同一份数据还要以另一个键缓存的场景
+     */
+    public Mono<Void> put(String cacheName, Object key, Object value) {
+        return put(cacheName, key, cacheName + "::" + key, value, 0);
+    }
+
+    private <T> Mono<Optional<Object>> load(String cacheName, Object key, String cacheKey, Supplier<Mono<T>> loader,
+                                            Timer loadTimer) {
+        long start = System.nanoTime();
+        return loader.get()
+                .map(Optional::<Object>of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(value -> {
+                    long elapsed = System.nanoTime() - start;
+                    loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    return put(cacheName, key, cacheKey, value.orElse(null), TimeUnit.NANOSECONDS.toMillis(elapsed))
+                            .onErrorResume(e -> {
+                                // 写缓存失败不影响本次读取
+                                logger.warn("写入缓存失败: {}", cacheKey, e);
+                                return Mono.empty();
+                            })
+                            .thenReturn(value);
+                });
+    }
+
+    private Mono<Void> put(String cacheName, Object key, String cacheKey, Object value, long loadMillis) {
+        Duration entryTtl = loadGuard.jitter(ttl);
+        boolean expires = !entryTtl.isZero() && !entryTtl.isNegative();
+        Object storeValue = NullValue.INSTANCE;
+        if (value != null) {
+            long expiresAt = expires ? System.currentTimeMillis() + entryTtl.toMillis() : 0;
+            storeValue = new CacheEnvelope(value, expiresAt, loadMillis);
+        }
+
+        Mono<Boolean> write = expires
+                ? redisTemplate.opsForValue().set(cacheKey, storeValue, entryTtl)
+                : redisTemplate.opsForValue().set(cacheKey, storeValue);
+        return write.thenMany(Flux.fromIterable(CacheTags.tagsOf(cacheName, key, value))
+                        .flatMap(tag -> registerTag(tag, cacheKey, entryTtl, expires)))
+                .then();
+    }
+
+    private Mono<Boolean> registerTag(String tag, String cacheKey, Duration entryTtl, boolean expires) {
+        String tagKey = CacheTags.TAG_KEY_PREFIX + tag;
+        Mono<Long> add = stringRedisTemplate.opsForSet().add(tagKey, cacheKey);
+        return expires ? add.then(stringRedisTemplate.expire(tagKey, entryTtl)) : add.thenReturn(true);
+    }
+
+    /**
+     * 与cacheManager的缓存指标同名，以cacheManager标签区分
+     */
+    private CacheMeters meters(String cacheName) {
+        return meters.computeIfAbsent(cacheName, name -> {
+            Tags tags = Tags.of("cacheManager", "reactiveTaggedCache", "cache", name);
+            return new CacheMeters(
+                    Counter.builder("cache.gets").tags(tags).tag("result", "hit").register(meterRegistry),
+                    Counter.builder("cache.gets").tags(tags).tag("result", "miss").register(meterRegistry),
+                    Timer.builder("cache.load.duration").tags(tags).register(meterRegistry));
+        });
+    }
+
+    private static Optional<Object> fromStoreValue(Object storeValue) {
+        Object value = storeValue instanceof CacheEnvelope envelope ? envelope.getValue() : storeValue;
+        return value instanceof NullValue ? Optional.empty() : Optional.of(value);
+    }
+
+    private record CacheMeters(Counter hits, Counter misses, Timer load) {
+    }
+}
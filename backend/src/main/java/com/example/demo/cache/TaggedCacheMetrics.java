@@ -0,0 +1,76 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.CacheStatistics;
+
+/**
+ * 缓存命中/未命中/写入/删除指标（cache.gets、cache.puts、cache.evictions），与Micrometer其他缓存实现同名。
+ * 两级缓存的命中为L1命中加L2命中，另有cache.local.gets区分L1；只有Redis的缓存使用RedisCacheWriter的统计
+ */
+class TaggedCacheMetrics extends CacheMeterBinder<Cache> {
+
+    private final TwoTierCache twoTierCache;
+
+    private final TaggedRedisCache redisCache;
+
+    TaggedCacheMetrics(Cache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.twoTierCache = cache instanceof TwoTierCache twoTier ? twoTier : null;
+        this.redisCache = cache instanceof TaggedRedisCache redis ? redis
+                : twoTierCache != null ? twoTierCache.getRedisCache() : null;
+    }
+
+    @Override
+    protected Long size() {
+        return twoTierCache != null ? twoTierCache.getLocalSize() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        if (twoTierCache != null) {
+            return twoTierCache.getLocalHits() + twoTierCache.getRemoteHits();
+        }
+        return redisCache != null ? redisStatistics().getHits() : 0;
+    }
+
+    @Override
+    protected Long missCount() {
+        if (twoTierCache != null) {
+            return twoTierCache.getRemoteMisses();
+        }
+        return redisCache != null ? redisStatistics().getMisses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return redisCache != null ? redisStatistics().getDeletes() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        return redisCache != null ? redisStatistics().getPuts() : 0;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        if (twoTierCache == null) {
+            return;
+        }
+        FunctionCounter.builder("cache.local.gets", twoTierCache, TwoTierCache::getLocalHits)
+                .tags(getTagsWithCacheName()).tag("result", "hit")
+                .description("The number of times the in-process L1 cache returned a value")
+                .register(registry);
+        FunctionCounter.builder("cache.local.gets", twoTierCache, TwoTierCache::getLocalMisses)
+                .tags(getTagsWithCacheName()).tag("result", "miss")
+                .description("The number of times the in-process L1 cache fell through to Redis")
+                .register(registry);
+    }
+
+    private CacheStatistics redisStatistics() {
+        return redisCache.getStatistics();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写入缓存时同时登记依赖标签的RedisCache。
+ * 条目以CacheEnvelope包装并带随机抖动的过期时间，未命中和提前刷新经由CacheLoadGuard单飞加载
+ */
+public class TaggedRedisCache extends RedisCache {
+
+    private final CacheTagStore tagStore;
+
+    private final CacheLoadGuard loadGuard;
+
+    /**
+     * 未命中时从数据源加载的耗时
+     */
+    private final Timer loadTimer;
+
+    protected TaggedRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+                               CacheTagStore tagStore, CacheLoadGuard loadGuard, Timer loadTimer) {
+        super(name, cacheWriter, cacheConfig);
+        this.tagStore = tagStore;
+        this.loadGuard = loadGuard;
+        this.loadTimer = loadTimer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = lookup(key);
+        ValueWrapper stale = null;
+        if (stored != null) {
+            if (!(stored instanceof CacheEnvelope envelope) || !loadGuard.shouldRefreshEarly(envelope)) {
+                return (T) fromStoreValue(stored);
+            }
+            stale = new SimpleValueWrapper(fromStoreValue(stored));
+        }
+
+        try {
+            return (T) loadGuard.load(createCacheKey(key), stale, () -> {
+                long start = System.nanoTime();
+                T value = valueLoader.call();
+                long elapsed = System.nanoTime() - start;
+                loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                put(key, value, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                return value;
+            }, () -> get(key));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        put(key, value, 0);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            registerTags(key, value, getCacheConfiguration().getTtl());
+        }
+        return existing;
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        if (storeValue instanceof CacheEnvelope envelope) {
+            return super.fromStoreValue(envelope.getValue());
+        }
+        return super.fromStoreValue(storeValue);
+    }
+
+    /**
+     * 条目在Redis中的完整键（cacheName::key）
+     */
+    public String cacheKeyOf(Object key) {
+        return createCacheKey(key);
+    }
+
+    private void put(Object key, Object value, long loadMillis) {
+        Object cacheValue = preProcessCacheValue(value);
+        if (cacheValue == null) {
+            throw new IllegalArgumentException("Cache '" + getName() + "' does not allow 'null' values");
+        }
+
+        Duration ttl = loadGuard.jitter(getCacheConfiguration().getTtl());
+        if (value != null) {
+            long expiresAt = ttl.isZero() || ttl.isNegative() ? 0 : System.currentTimeMillis() + ttl.toMillis();
+            cacheValue = new CacheEnvelope(cacheValue, expiresAt, loadMillis);
+        }
+        String cacheKey = createCacheKey(key);
+        getNativeCache().put(getName(), serializeCacheKey(cacheKey), serializeCacheValue(cacheValue), ttl);
+        registerTags(key, value, ttl);
+    }
+
+    private void registerTags(Object key, Object value, Duration ttl) {
+        Set<String> tags = CacheTags.tagsOf(getName(), key, value);
+        tagStore.register(createCacheKey(key), tags, ttl);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * initialCacheNames中的缓存启动时创建，指标从启动起就存在；其他缓存在首次使用时创建并注册指标
+ */
+public class TaggedRedisCacheManager extends RedisCacheManager {
+
+    private static final Tags TAGS = Tags.of("cacheManager", "cacheManager");
+
+    private final RedisCacheWriter cacheWriter;
+
+    private final CacheTagStore tagStore;
+
+    private final NearCacheCoordinator nearCacheCoordinator;
+
+    private final CacheLoadGuard loadGuard;
+
+    private final MeterRegistry meterRegistry;
+
+    public TaggedRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                   CacheTagStore tagStore, NearCacheCoordinator nearCacheCoordinator,
+                                   CacheLoadGuard loadGuard, MeterRegistry meterRegistry, String... initialCacheNames) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheNames);
+        this.cacheWriter = cacheWriter;
+        this.tagStore = tagStore;
+        this.nearCacheCoordinator = nearCacheCoordinator;
+        this.loadGuard = loadGuard;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
+        Timer loadTimer = Timer.builder("cache.load.duration")
+                .tags(TAGS).tag("cache", name)
+                .description("Time spent loading values into the cache on a miss")
+                .register(meterRegistry);
+        return new TaggedRedisCache(name, cacheWriter, cacheConfig, tagStore, loadGuard, loadTimer);
+    }
+
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        Cache decorated = nearCacheCoordinator.decorate(cache);
+        new TaggedCacheMetrics(decorated, TAGS).bindTo(meterRegistry);
+        return super.decorateCache(decorated);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 两级缓存：进程内Caffeine作为L1，Redis作为L2。
+ * L1以Redis键为键，写入和失效都会通过发布订阅通知其他实例丢弃各自的L1。
+ * 从L2读到的值回填L1前检查失效代数：读L2期间该键被失效过（代数变化）则不回填，避免把旧值放回L1
+ */
+public class TwoTierCache implements org.springframework.cache.Cache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final TaggedRedisCache redisCache;
+
+    private final Cache<String, ValueWrapper> localCache;
+
+    private final NearCacheCoordinator coordinator;
+
+    /**
+     * 按键哈希分段的失效代数，失效时递增；清空整个缓存时递增clearGeneration
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public TwoTierCache(TaggedRedisCache redisCache, Cache<String, ValueWrapper> localCache,
+                        NearCacheCoordinator coordinator) {
+        this.redisCache = redisCache;
+        this.localCache = localCache;
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    public String getName() {
+        return redisCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String cacheKey = redisCache.cacheKeyOf(key);
+        ValueWrapper wrapper = localCache.getIfPresent(cacheKey);
+        if (wrapper != null) {
+            localHits.increment();
+            return wrapper;
+        }
+        localMisses.increment();
+
+        long generation = generationOf(cacheKey);
+        wrapper = redisCache.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            fillLocal(cacheKey, wrapper.get(), generation);
+        } else {
+            remoteMisses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = redisCache.cacheKeyOf(key);
+        ValueWrapper wrapper = localCache.getIfPresent(cacheKey);
+        if (wrapper != null) {
+            localHits.increment();
+            return (T) wrapper.get();
+        }
+        localMisses.increment();
+
+        // L2的命中、提前刷新和单飞加载都由RedisCache处理，这里只区分是否触发了加载
+        long generation = generationOf(cacheKey);
+        boolean[] loaded = new boolean[1];
+        T value = redisCache.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        if (loaded[0]) {
+            remoteMisses.increment();
+            coordinator.publish(cacheKey);
+        } else {
+            remoteHits.increment();
+        }
+        fillLocal(cacheKey, value, generation);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        String cacheKey = redisCache.cacheKeyOf(key);
+        localCache.put(cacheKey, new SimpleValueWrapper(value));
+        coordinator.publish(cacheKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        String cacheKey = redisCache.cacheKeyOf(key);
+        invalidateLocal(cacheKey);
+        coordinator.publish(cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        clearLocal();
+        coordinator.publishClear(getName());
+    }
+
+    /**
+     * 先递增代数再删除，与fillLocal的"先写入再检查"配合，任何交错下旧值都不会留在L1中
+     */
+    void invalidateLocal(String cacheKey) {
+        generations.incrementAndGet(stripeOf(cacheKey));
+        localCache.invalidate(cacheKey);
+    }
+
+    void clearLocal() {
+        clearGeneration.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    /**
+     * 读L2前取得的代数未变化时才回填L1；写入后再检查一次，期间发生的失效可能已先于写入执行，此时删除刚写入的值
+     */
+    private void fillLocal(String cacheKey, Object value, long generation) {
+        if (generationOf(cacheKey) != generation) {
+            return;
+        }
+        localCache.put(cacheKey, new SimpleValueWrapper(value));
+        if (generationOf(cacheKey) != generation) {
+            localCache.invalidate(cacheKey);
+        }
+    }
+
+    private long generationOf(String cacheKey) {
+        return generations.get(stripeOf(cacheKey)) + clearGeneration.get();
+    }
+
+    private static int stripeOf(String cacheKey) {
+        return (cacheKey.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getLocalMisses() {
+        return localMisses.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    public long getLocalSize() {
+        return localCache.estimatedSize();
+    }
+
+    TaggedRedisCache getRedisCache() {
+        return redisCache;
+    }
+}
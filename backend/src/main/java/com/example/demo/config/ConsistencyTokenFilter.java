@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 读取客户端带回的一致性令牌，请求结束后清理
+ */
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConsistencyTokenHolder.setToken(request.getHeader(ConsistencyTokenHolder.HEADER));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsistencyTokenHolder.clear();
+        }
+    }
+}
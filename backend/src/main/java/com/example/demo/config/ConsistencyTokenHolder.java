@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+/**
+ * 当前请求要求从库已应用的GTID集合（一致性令牌）
+ * 单独存放，不随DataSourceContextHolder在每次仓库调用后清理
+ */
+public class ConsistencyTokenHolder {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<String> TOKEN_HOLDER = new ThreadLocal<>();
+
+    public static void setToken(String token) {
+        if (token == null || token.isBlank()) {
+            TOKEN_HOLDER.remove();
+        } else {
+            TOKEN_HOLDER.set(token);
+        }
+    }
+
+    public static String getToken() {
+        return TOKEN_HOLDER.get();
+    }
+
+    public static void clear() {
+        TOKEN_HOLDER.remove();
+    }
+}
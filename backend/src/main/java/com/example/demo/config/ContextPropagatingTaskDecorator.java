@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * 异步任务不继承提交线程的ThreadLocal，提交时捕获数据源路由、一致性令牌、日志MDC（请求ID）和采样标记，
+ * 在执行线程上恢复并在结束后清理；NDJSON流式响应等异步执行的查询因此仍带请求ID，被采样的请求仍输出跟踪日志。
+ * 虚拟线程每个任务一个线程，同样依赖这里显式传递
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        String dataSourceKey = DataSourceContextHolder.getDataSourceKey();
+        String token = ConsistencyTokenHolder.getToken();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        boolean sampled = RequestTraceHolder.isSampled();
+        return () -> {
+            DataSourceContextHolder.setDataSourceKey(dataSourceKey);
+            ConsistencyTokenHolder.setToken(token);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            RequestTraceHolder.setSampled(sampled);
+            try {
+                runnable.run();
+            } finally {
+                DataSourceContextHolder.clearDataSourceKey();
+                ConsistencyTokenHolder.clear();
+                MDC.clear();
+                RequestTraceHolder.clear();
+            }
+        };
+    }
+}
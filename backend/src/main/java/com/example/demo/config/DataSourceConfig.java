@@ -2,12 +2,20 @@ package com.example.demo.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
 
-import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class DataSourceConfig {
@@ -24,10 +32,53 @@ public class DataSourceConfig {
     @Value("${spring.datasource.master.driver-class-name}")
     private String driverClassName;
 
+    /**
+     * 从库名称列表，每个从库的连接信息配置在spring.datasource.<名称>下
+     */
+    @Value("${spring.datasource.replicas:}")
+    private List<String> replicaNames;
+
+    /**
+     * 带一致性令牌的读请求在从库上等待GTID应用的最长时间，超时改读主库
+     */
+    @Value("${spring.datasource.replica-consistency.wait-timeout:50}")
+    private long gtidWaitMillis;
+
+    /**
+     * 按SQL指纹统计耗时和返回行数，报告见/api/db/slow-queries
+     */
+    @Value("${sql.profiler.enabled:true}")
+    private boolean profilerEnabled;
+
+    @Value("${sql.profiler.slow-threshold:200}")
+    private long slowThresholdMillis;
+
+    @Value("${sql.profiler.window:300000}")
+    private long profilerWindowMillis;
+
+    @Value("${sql.profiler.max-entries:2000}")
+    private int profilerMaxEntries;
+
+    /**
+     * 单个请求最多执行的SQL条数，0表示不限制；超出时按sql.budget.action记录日志（log）或使请求失败（fail）
+     */
+    @Value("${sql.budget.max-queries:0}")
+    private int queryBudget;
+
+    @Value("${sql.budget.action:log}")
+    private String queryBudgetAction;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Primary
     @Bean
-    public DataSource dataSource() {
+    public ReplicaRoutingDataSource dataSource() {
         HikariConfig config = new HikariConfig();
+        config.setPoolName("master");
         config.setJdbcUrl(url);
         config.setUsername(username);
         config.setPassword(password);
@@ -37,6 +88,58 @@ public class DataSourceConfig {
         config.setIdleTimeout(600000);
         config.setConnectionTimeout(30000);
         config.setMaxLifetime(1800000);
-        return new HikariDataSource(config);
+        // 连接池指标hikaricp.*按pool标签区分，pool即路由键（master或从库名）
+        config.setMetricRegistry(meterRegistry);
+        Binder.get(environment).bind("spring.datasource.master.hikari", Bindable.ofInstance(config));
+        HikariDataSource master = new HikariDataSource(config);
+
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String name : replicaNames) {
+            if (!name.isBlank()) {
+                replicas.add(createReplica(name.trim()));
+            }
+        }
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(master, replicas);
+        routingDataSource.setGtidWaitMillis(gtidWaitMillis);
+        routingDataSource.setQueryMetrics(new JdbcQueryMetrics(meterRegistry, profilerEnabled ? queryProfiler() : null));
+        return routingDataSource;
+    }
+
+    /**
+     * SQL条数预算在统计SQL时检查，关闭统计时预算也不生效
+     */
+    @Bean
+    public QueryProfiler queryProfiler() {
+        return new QueryProfiler(slowThresholdMillis, profilerWindowMillis, profilerMaxEntries,
+                profilerEnabled ? queryBudget : 0, "fail".equalsIgnoreCase(queryBudgetAction));
+    }
+
+    /**
+     * 同时存在R2DBC的响应式事务管理器，@Transactional默认使用这个JPA事务管理器
+     */
+    @Primary
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ReplicaRoutingDataSource routingDataSource) {
+        return new GtidAwareTransactionManager(entityManagerFactory, routingDataSource);
+    }
+
+    private ReplicaRoutingDataSource.Replica createReplica(String name) {
+        String prefix = "spring.datasource." + name;
+        Binder binder = Binder.get(environment);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(environment.getRequiredProperty(prefix + ".url"));
+        config.setUsername(environment.getProperty(prefix + ".username", username));
+        config.setPassword(environment.getProperty(prefix + ".password", password));
+        config.setDriverClassName(environment.getProperty(prefix + ".driver-class-name", driverClassName));
+        config.setReadOnly(true);
+        config.setMetricRegistry(meterRegistry);
+        // 连接池大小、超时等沿用spring.datasource.<名称>.hikari.*配置
+        binder.bind(prefix + ".hikari", Bindable.ofInstance(config));
+
+        int weight = environment.getProperty(prefix + ".weight", Integer.class, 1);
+        return new ReplicaRoutingDataSource.Replica(name, new HikariDataSource(config), weight);
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,12 @@
 package com.example.demo.config;
 
+/**
+ * 当前线程新建连接时使用的数据源类型，由GtidAwareTransactionManager在事务开始时设置，
+ * 事务外的操作默认走主库
+ */
 public class DataSourceContextHolder {
 
     private static final ThreadLocal<String> CONTEXT_HOLDER = ThreadLocal.withInitial(() -> DataSourceType.MASTER.name());
-    private static final ThreadLocal<Boolean> WRITE_OPERATION_HOLDER = ThreadLocal.withInitial(() -> false);
 
     public static void setDataSourceKey(String dataSourceKey) {
         CONTEXT_HOLDER.set(dataSourceKey);
@@ -16,21 +19,4 @@ public class DataSourceContextHolder {
     public static void clearDataSourceKey() {
         CONTEXT_HOLDER.remove();
     }
-
-    public static void setWriteOperation(boolean writeOperation) {
-        WRITE_OPERATION_HOLDER.set(writeOperation);
-    }
-
-    public static boolean isWriteOperation() {
-        return WRITE_OPERATION_HOLDER.get();
-    }
-
-    public static void clearWriteOperation() {
-        WRITE_OPERATION_HOLDER.remove();
-    }
-
-    public static void clearAll() {
-        CONTEXT_HOLDER.remove();
-        WRITE_OPERATION_HOLDER.remove();
-    }
-}
\ No newline at end of file
+}
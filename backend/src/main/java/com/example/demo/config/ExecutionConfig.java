@@ -0,0 +1,59 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 请求和异步任务的执行线程。app.virtual-threads.enabled=true且运行在Java 21上时，
+ * Tomcat请求、@Async任务和StreamingResponseBody都在虚拟线程上执行，阻塞在JDBC/Redis上时不再占用平台线程
+ */
+@Configuration
+@EnableAsync
+public class ExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    /**
+     * 替换Spring Boot默认的applicationTaskExecutor，同时供@Async和Spring MVC异步请求使用
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+        if (virtualThreadsEnabled) {
+            ExecutorService executor = VirtualThreads.newExecutor();
+            if (executor != null) {
+                TaskExecutorAdapter adapter = new TaskExecutorAdapter(executor);
+                adapter.setTaskDecorator(decorator);
+                logger.info("异步任务使用虚拟线程执行");
+                return adapter;
+            }
+        }
+        return builder.taskDecorator(decorator).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = VirtualThreads.newExecutor();
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                logger.info("Tomcat请求使用虚拟线程执行");
+            }
+        };
+    }
+}
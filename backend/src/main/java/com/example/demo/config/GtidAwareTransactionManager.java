@@ -0,0 +1,98 @@
+package com.example.demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 事务开始时按只读标记选择主库或从库，连接在事务内保持不变；
+ * 写事务提交后读取主库已执行的GTID集合，作为一致性令牌写入响应头，
+ * 同一请求后续的读操作也使用该令牌
+ */
+public class GtidAwareTransactionManager extends JpaTransactionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(GtidAwareTransactionManager.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public GtidAwareTransactionManager(EntityManagerFactory entityManagerFactory,
+                                       ReplicaRoutingDataSource routingDataSource) {
+        super(entityManagerFactory);
+        this.routingDataSource = routingDataSource;
+    }
+
+    /**
+     * 只读标记来自@ReadOnly/@Master或@Transactional(readOnly = true)，按方法解析一次后缓存；
+     * 连接在doBegin中获取并绑定到事务，之后即可恢复线程的默认路由
+     */
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        DataSourceType type = definition.isReadOnly() ? DataSourceType.SLAVE : DataSourceType.MASTER;
+        DataSourceContextHolder.setDataSourceKey(type.name());
+        try {
+            super.doBegin(transaction, definition);
+        } finally {
+            DataSourceContextHolder.clearDataSourceKey();
+        }
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        super.doCommit(status);
+        if (status.isReadOnly() || routingDataSource.getReplicas().isEmpty()) {
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        String gtid = executedGtidSet();
+        if (gtid == null) {
+            return;
+        }
+        ConsistencyTokenHolder.setToken(gtid);
+        HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+        if (response != null) {
+            response.setHeader(ConsistencyTokenHolder.HEADER, gtid);
+        }
+    }
+
+    /**
+     * 在本事务自己的连接上读取：提交之后、doCleanupAfterCompletion释放之前连接仍由会话持有
+     * （连接模式为DELAYED_ACQUISITION_AND_HOLD），不再额外占用一个主库连接。
+     * 提交已完成，读取失败只记录日志，不影响本次写操作
+     */
+    private String executedGtidSet() {
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder == null) {
+            return null;
+        }
+        try {
+            return holder.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT @@GLOBAL.gtid_executed")) {
+                    String gtid = rs.next() ? rs.getString(1) : null;
+                    // 多个server_uuid时结果中带换行，作为响应头前需要去掉
+                    return gtid == null || gtid.isBlank() ? null : gtid.replaceAll("\\s", "");
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("读取主库GTID失败", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL执行耗时指标db.query，按数据源（master或从库名）和操作类型（query、update、batch、execute）打标签。
+ * 通过动态代理包装连接及其创建的Statement，只对execute*方法计时，其余调用直接转发；
+ * 当前请求被采样时（见RequestTraceFilter）另外输出每条SQL的数据源和耗时；
+ * 设置了QueryProfiler时同时按SQL指纹统计耗时和返回行数（查询结果集的next()次数，更新语句的影响行数）
+ */
+public class JdbcQueryMetrics {
+
+    private static final Logger traceLogger = LoggerFactory.getLogger("com.example.demo.trace.sql");
+
+    private final MeterRegistry meterRegistry;
+
+    private final QueryProfiler queryProfiler;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public JdbcQueryMetrics(MeterRegistry meterRegistry, QueryProfiler queryProfiler) {
+        this.meterRegistry = meterRegistry;
+        this.queryProfiler = queryProfiler;
+    }
+
+    public Connection instrument(Connection connection, String dataSource) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, dataSource));
+    }
+
+    private Timer timer(String dataSource, String operation) {
+        return timers.computeIfAbsent(dataSource + ':' + operation, key -> Timer.builder("db.query")
+                .tag("datasource", dataSource)
+                .tag("operation", operation)
+                .description("Time spent executing JDBC statements")
+                .register(meterRegistry));
+    }
+
+    private static String operationOf(String methodName) {
+        return switch (methodName) {
+            case "executeQuery" -> "query";
+            case "executeUpdate", "executeLargeUpdate" -> "update";
+            case "executeBatch", "executeLargeBatch" -> "batch";
+            case "execute" -> "execute";
+            default -> null;
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private final String dataSource;
+
+        ConnectionHandler(Connection target, String dataSource) {
+            this.target = target;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // 事务同步按连接对象判断是否为同一连接，代理自身参与比较
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = JdbcQueryMetrics.invoke(target, method, args);
+            Class<?> statementType = result instanceof CallableStatement ? CallableStatement.class
+                    : result instanceof PreparedStatement ? PreparedStatement.class
+                    : result instanceof Statement ? Statement.class : null;
+            if (statementType == null) {
+                return result;
+            }
+            // prepareStatement/prepareCall的第一个参数是SQL，createStatement的SQL在执行时传入
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            InvocationHandler handler = SqlCapture.isActive() ? new CapturingStatementHandler((Statement) result, sql)
+                    : new StatementHandler((Statement) result, dataSource, sql);
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementType}, handler);
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final String dataSource;
+
+        private final String sql;
+
+        StatementHandler(Statement target, String dataSource, String sql) {
+            this.target = target;
+            this.dataSource = dataSource;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String operation = operationOf(method.getName());
+            if (operation == null) {
+                return JdbcQueryMetrics.invoke(target, method, args);
+            }
+            String statementSql = sql != null ? sql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (queryProfiler != null) {
+                queryProfiler.beforeExecute(statementSql);
+            }
+            QueryProfiler.QueryStats stats = null;
+            Object result;
+            long start = System.nanoTime();
+            try {
+                result = JdbcQueryMetrics.invoke(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                timer(dataSource, operation).record(elapsed, TimeUnit.NANOSECONDS);
+                if (queryProfiler != null) {
+                    stats = queryProfiler.record(dataSource, statementSql, elapsed);
+                }
+                if (RequestTraceHolder.isSampled()) {
+                    traceLogger.info("[{}] {} {}us: {}", dataSource, operation, elapsed / 1000, statementSql);
+                }
+            }
+            if (stats == null) {
+                return result;
+            }
+            if (result instanceof ResultSet resultSet) {
+                return countRows(resultSet, stats);
+            }
+            if (result instanceof Number updated) {
+                stats.addRows(Math.max(0, updated.longValue()));
+            } else if (result instanceof int[] batch) {
+                for (int updated : batch) {
+                    stats.addRows(Math.max(0, updated));
+                }
+            } else if (result instanceof long[] batch) {
+                for (long updated : batch) {
+                    stats.addRows(Math.max(0, updated));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 截获状态下创建的Statement：记录setXxx(序号, 值)绑定的参数，执行时交给SqlCapture而不访问数据库
+     */
+    private static final class CapturingStatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final String sql;
+
+        private final SortedMap<Integer, Object> parameters = new TreeMap<>();
+
+        CapturingStatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (operationOf(name) != null) {
+                SqlCapture.capture(sql != null ? sql : (String) args[0], parameters);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            }
+            return JdbcQueryMetrics.invoke(target, method, args);
+        }
+    }
+
+    private static ResultSet countRows(ResultSet resultSet, QueryProfiler.QueryStats stats) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(resultSet, method, args);
+                    if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                        stats.addRows(1);
+                    }
+                    return result;
+                });
+    }
+}
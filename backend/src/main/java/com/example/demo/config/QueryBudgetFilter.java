@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 开启sql.budget.max-queries时为每个请求统计执行的SQL条数，未开启时直接放行
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private QueryProfiler queryProfiler;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !queryProfiler.isBudgetEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        queryProfiler.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queryProfiler.endRequest(request.getMethod(), request.getRequestURI());
+        }
+    }
+}
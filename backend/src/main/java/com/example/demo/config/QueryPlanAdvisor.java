@@ -0,0 +1,221 @@
+package com.example.demo.config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.BaseStream;
+
+/**
+ * 启动后对每个Spring Data仓库的查询方法（派生查询和@Query）做EXPLAIN，发现全表扫描时记录警告。
+ * 查询方法以示例参数调用，SqlCapture截获生成的SQL和绑定参数后中止执行，再在主库上EXPLAIN同样的SQL；
+ * 没有WHERE条件的查询（流式读取全表等）本来就读全表，不告警；自定义实现（*RepositoryCustomImpl）中手写的按主键SQL不检查。
+ * 只支持MySQL/MariaDB。每次启动都会对主库执行一轮EXPLAIN，默认关闭，只在开发和CI环境开启
+ */
+@Component
+public class QueryPlanAdvisor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanAdvisor.class);
+
+    @Value("${sql.explain.on-startup:false}")
+    private boolean enabled;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void explainRepositoryQueries() {
+        if (!enabled) {
+            return;
+        }
+        try (Connection connection = routingDataSource.getMaster().getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            if (!product.contains("mysql") && !product.contains("mariadb")) {
+                logger.info("数据库{}不支持EXPLAIN检查，跳过", product);
+                return;
+            }
+        } catch (SQLException e) {
+            logger.warn("连接主库失败，跳过EXPLAIN检查", e);
+            return;
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Repositories repositories = new Repositories(applicationContext);
+        int methods = 0;
+        List<String> fullScans = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElse(null);
+            if (repository == null) {
+                continue;
+            }
+            for (Method method : information.getQueryMethods()) {
+                if (method.getDeclaringClass() != information.getRepositoryInterface()) {
+                    continue;
+                }
+                String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                Object[] args = sampleArguments(method);
+                if (args == null) {
+                    logger.info("{}的参数类型无法构造示例值，跳过EXPLAIN", name);
+                    continue;
+                }
+                methods++;
+                for (SqlCapture.CapturedStatement statement : capture(readOnly, repository, method, args)) {
+                    if (explain(name, statement)) {
+                        fullScans.add(name);
+                    }
+                }
+            }
+        }
+        logger.info("EXPLAIN检查完成，查询方法{}个，全表扫描{}个{}", methods, fullScans.size(),
+                fullScans.isEmpty() ? "" : ": " + fullScans);
+    }
+
+    /**
+     * 在只读事务中调用查询方法（流式查询要求有事务），截获后抛出的异常使事务回滚
+     */
+    private List<SqlCapture.CapturedStatement> capture(TransactionTemplate readOnly, Object repository, Method method,
+                                                       Object[] args) {
+        List<SqlCapture.CapturedStatement> captured;
+        SqlCapture.start();
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try {
+                    Object result = method.invoke(repository, args);
+                    if (result instanceof BaseStream<?, ?> stream) {
+                        stream.close();
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 正常情况下是截获后中止执行的异常，被框架包装后的类型不确定
+        } finally {
+            captured = SqlCapture.stop();
+        }
+        return captured;
+    }
+
+    /**
+     * 返回是否有表被全表扫描
+     */
+    private boolean explain(String name, SqlCapture.CapturedStatement statement) {
+        String sql = statement.sql();
+        if (!sql.toLowerCase(Locale.ROOT).contains(" where ")) {
+            return false;
+        }
+        boolean fullScan = false;
+        try (Connection connection = routingDataSource.getMaster().getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Map.Entry<Integer, Object> parameter : statement.parameters().entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    String type = rs.getString("type");
+                    if ("ALL".equalsIgnoreCase(type) || "index".equalsIgnoreCase(type)) {
+                        fullScan = true;
+                        logger.warn("{}对表{}{}（type={}，预计{}行，可用索引: {}，{}）: {}", name, rs.getString("table"),
+                                "ALL".equalsIgnoreCase(type) ? "全表扫描" : "全索引扫描", type, rs.getLong("rows"),
+                                rs.getString("possible_keys"), rs.getString("Extra"), sql);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("EXPLAIN {}失败: {}", name, sql, e);
+        }
+        return fullScan;
+    }
+
+    /**
+     * 示例参数只用于生成SQL和EXPLAIN，值本身不影响是否能用到索引
+     */
+    private Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object sample = sample(types[i]);
+            if (sample == null) {
+                return null;
+            }
+            args[i] = sample;
+        }
+        return args;
+    }
+
+    private Object sample(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == String.class) {
+            return "x";
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return Boolean.TRUE;
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (type == Date.class) {
+            return new Date();
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 20);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L);
+        }
+        if (type.isAnnotationPresent(Entity.class)) {
+            // 只取代理不查库，绑定参数时使用其主键
+            return entityManager.getReference(type, 1L);
+        }
+        if (type.isEnum() && type.getEnumConstants().length > 0) {
+            return type.getEnumConstants()[0];
+        }
+        return null;
+    }
+}
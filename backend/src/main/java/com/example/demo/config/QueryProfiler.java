@@ -0,0 +1,336 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.QueryBudgetExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 按SQL指纹（参数和字面量替换为?）、发起请求的接口和执行的数据源统计SQL的次数、耗时分位数和返回行数，
+ * 统计按时间窗口滚动，报告只包含当前和上一个窗口；超过慢查询阈值的SQL单独记录日志。
+ * 可选的单请求SQL条数预算用于发现N+1查询：超出时记录日志，或在超出的那条SQL执行前抛出异常使请求失败
+ */
+public class QueryProfiler {
+
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger("com.example.demo.slow-query");
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryProfiler.class);
+
+    private static final String BACKGROUND = "(background)";
+
+    private static final String OTHER = "(other)";
+
+    /**
+     * 耗时以微秒记录，上限60秒，1位有效数字（误差约6%）使每个指纹的直方图只占几KB
+     */
+    private static final long MAX_MICROS = 60_000_000L;
+
+    private static final int MAX_FINGERPRINT_CACHE = 10_000;
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private final long slowThresholdNanos;
+
+    private final long windowMillis;
+
+    private final int maxEntries;
+
+    private final int queryBudget;
+
+    private final boolean failOverBudget;
+
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<RequestQueries> requestQueries = new ThreadLocal<>();
+
+    private volatile Window current;
+
+    private volatile Window previous;
+
+    public QueryProfiler(long slowThresholdMillis, long windowMillis, int maxEntries, int queryBudget,
+                         boolean failOverBudget) {
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000L;
+        this.windowMillis = windowMillis;
+        this.maxEntries = maxEntries;
+        this.queryBudget = queryBudget;
+        this.failOverBudget = failOverBudget;
+        this.current = new Window(System.currentTimeMillis());
+    }
+
+    public boolean isBudgetEnabled() {
+        return queryBudget > 0;
+    }
+
+    /**
+     * SQL执行前调用，只在QueryBudgetFilter开启了当前请求的计数时生效
+     */
+    void beforeExecute(String sql) {
+        RequestQueries queries = requestQueries.get();
+        if (queries == null) {
+            return;
+        }
+        String fingerprint = fingerprint(sql);
+        queries.count++;
+        queries.perFingerprint.merge(fingerprint, 1, Integer::sum);
+        if (failOverBudget && queries.count == queryBudget + 1) {
+            // 异常消息可能被返回给客户端，SQL明细只记录在日志中
+            logger.warn("请求{}执行的SQL超过预算{}条，重复最多的SQL: {}", endpoint(), queryBudget, queries.mostRepeated());
+            throw new QueryBudgetExceededException("请求执行的SQL超过" + queryBudget + "条");
+        }
+    }
+
+    /**
+     * 记录一次执行，返回的统计项用于之后累加返回行数
+     */
+    QueryStats record(String dataSource, String sql, long elapsedNanos) {
+        String fingerprint = fingerprint(sql);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String method = BACKGROUND;
+        String pattern = BACKGROUND;
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            Object bestMatching = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            method = request.getMethod();
+            pattern = bestMatching != null ? bestMatching.toString() : request.getRequestURI();
+        }
+        Window window = currentWindow();
+        Key key = new Key(fingerprint, method, pattern, dataSource);
+        QueryStats stats = window.stats.get(key);
+        if (stats == null) {
+            if (window.stats.size() >= maxEntries) {
+                key = new Key(OTHER, OTHER, OTHER, dataSource);
+            }
+            stats = window.stats.computeIfAbsent(key, k -> new QueryStats());
+        }
+        stats.record(elapsedNanos);
+        if (elapsedNanos >= slowThresholdNanos) {
+            slowQueryLogger.warn("慢查询 [{}] {} {} {}ms: {}", dataSource, method, pattern, elapsedNanos / 1_000_000,
+                    fingerprint);
+        }
+        return stats;
+    }
+
+    void beginRequest() {
+        requestQueries.set(new RequestQueries());
+    }
+
+    /**
+     * 请求结束时清理计数；只记录日志模式下超出预算时输出一条汇总
+     */
+    void endRequest(String method, String uri) {
+        RequestQueries queries = requestQueries.get();
+        requestQueries.remove();
+        if (queries != null && !failOverBudget && queries.count > queryBudget) {
+            logger.warn("请求{} {}执行了{}条SQL，超过预算{}条，重复最多的SQL: {}", method, uri, queries.count,
+                    queryBudget, queries.mostRepeated());
+        }
+    }
+
+    /**
+     * 慢查询报告：统计窗口、阈值和按sort排序的前limit条
+     */
+    public Map<String, Object> toReport(int limit, String sort) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("windowMillis", windowMillis);
+        report.put("slowThresholdMillis", slowThresholdNanos / 1_000_000);
+        report.put("queries", report(limit, sort));
+        return report;
+    }
+
+    /**
+     * 当前和上一个窗口合并后的前limit条，sort为p99、total、count或rows
+     */
+    public List<Entry> report(int limit, String sort) {
+        Map<Key, Histogram> histograms = new HashMap<>();
+        Map<Key, long[]> rows = new HashMap<>();
+        for (Window window : new Window[]{previous, currentWindow()}) {
+            if (window == null) {
+                continue;
+            }
+            window.stats.forEach((key, stats) -> {
+                histograms.computeIfAbsent(key, k -> new Histogram(1, MAX_MICROS, 1)).add(stats.histogram);
+                rows.computeIfAbsent(key, k -> new long[1])[0] += stats.rows.sum();
+            });
+        }
+        List<Entry> entries = new ArrayList<>(histograms.size());
+        histograms.forEach((key, histogram) -> entries.add(Entry.of(key, histogram, rows.get(key)[0])));
+        entries.sort(comparator(sort).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    public void reset() {
+        synchronized (this) {
+            previous = null;
+            current = new Window(System.currentTimeMillis());
+        }
+    }
+
+    private static Comparator<Entry> comparator(String sort) {
+        return switch (sort == null ? "p99" : sort) {
+            case "total" -> Comparator.comparingDouble(Entry::totalMillis);
+            case "count" -> Comparator.comparingLong(Entry::count);
+            case "rows" -> Comparator.comparingLong(Entry::rows);
+            default -> Comparator.comparingDouble(Entry::p99Millis);
+        };
+    }
+
+    private Window currentWindow() {
+        Window window = current;
+        long now = System.currentTimeMillis();
+        if (now - window.start < windowMillis) {
+            return window;
+        }
+        synchronized (this) {
+            if (current == window) {
+                previous = window;
+                current = new Window(now);
+            }
+            return current;
+        }
+    }
+
+    private String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return BACKGROUND;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        return request.getMethod() + " " + request.getRequestURI();
+    }
+
+    /**
+     * Hibernate生成的SQL种类有限，指纹按原SQL缓存；缓存满后不再缓存，直接计算
+     */
+    String fingerprint(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = normalize(sql);
+            if (fingerprints.size() < MAX_FINGERPRINT_CACHE) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * 字符串和数字字面量替换为?，连续空白合并为一个空格，IN (?, ?, ...)合并为IN (?+)，
+     * 使参数个数不同的同一查询归为一个指纹
+     */
+    static String normalize(String sql) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i++;
+                while (i < length && !(sql.charAt(i) == '\'' && (i + 1 >= length || sql.charAt(i + 1) != '\''))) {
+                    i += sql.charAt(i) == '\'' ? 2 : 1;
+                }
+                builder.append('?');
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                builder.append(' ');
+            } else if (Character.isDigit(c) && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                builder.append('?');
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return IN_LIST.matcher(builder.toString().trim()).replaceAll("(?+)");
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.';
+    }
+
+    private record Key(String fingerprint, String method, String pattern, String dataSource) {
+    }
+
+    private static final class Window {
+
+        private final long start;
+
+        private final Map<Key, QueryStats> stats = new ConcurrentHashMap<>();
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * 单个指纹在一个时间窗口内的统计，耗时直方图和行数计数都支持并发写入
+     */
+    static final class QueryStats {
+
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(1, MAX_MICROS, 1);
+
+        private final LongAdder rows = new LongAdder();
+
+        void record(long elapsedNanos) {
+            histogram.recordValue(Math.max(1, Math.min(MAX_MICROS, elapsedNanos / 1000)));
+        }
+
+        void addRows(long count) {
+            rows.add(count);
+        }
+    }
+
+    private static final class RequestQueries {
+
+        private int count;
+
+        private final Map<String, Integer> perFingerprint = new HashMap<>();
+
+        String mostRepeated() {
+            return perFingerprint.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(entry -> entry.getValue() + "次 " + entry.getKey())
+                    .orElse("");
+        }
+    }
+
+    /**
+     * 报告中的一项，耗时单位为毫秒
+     */
+    public record Entry(String fingerprint, String endpoint, String dataSource, long count, double p50Millis,
+                        double p99Millis, double maxMillis, double totalMillis, long rows, double rowsPerQuery) {
+
+        static Entry of(Key key, Histogram histogram, long rows) {
+            long count = histogram.getTotalCount();
+            String endpoint = key.method().equals(key.pattern()) ? key.pattern() : key.method() + " " + key.pattern();
+            return new Entry(key.fingerprint(), endpoint, key.dataSource(), count,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    histogram.getMean() * count / 1000.0,
+                    rows, count == 0 ? 0 : (double) rows / count);
+        }
+    }
+}
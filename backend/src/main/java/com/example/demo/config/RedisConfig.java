@@ -1,45 +1,178 @@
 package com.example.demo.config;
 
+import com.example.demo.cache.CacheLoadGuard;
+import com.example.demo.cache.CacheTagStore;
+import com.example.demo.cache.CompactRedisSerializer;
+import com.example.demo.cache.NearCacheCoordinator;
+import com.example.demo.cache.ReactiveTaggedCache;
+import com.example.demo.cache.TaggedRedisCacheManager;
+import com.example.demo.service.impl.ProductIndexCoordinator;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.util.Set;
+
 @Configuration
 @EnableCaching
 public class RedisConfig extends CachingConfigurerSupport {
 
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory(@Value("${spring.redis.host:redis-master-1}") String host,
+                                                           @Value("${spring.redis.port:7001}") int port,
+                                                           ClientResources clientResources) {
         // 直接配置Redis连接工厂
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
-        config.setHostName("redis-master-1");
-        config.setPort(7001);
+        config.setHostName(host);
+        config.setPort(port);
         config.setPassword("");
         config.setDatabase(0);
-        return new LettuceConnectionFactory(config);
+        // 使用Spring Boot创建的ClientResources，其中注册了命令延迟指标（lettuce.command.*）
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .build();
+        return new LettuceConnectionFactory(config, clientConfig);
+    }
+
+    /**
+     * Redis值序列化器，缓存和RedisTemplate共用；读取时兼容所有格式，写入格式由cache.serializer.format决定
+     */
+    @Bean
+    public RedisSerializer<Object> redisValueSerializer(@Value("${cache.serializer.format:SMILE}") CompactRedisSerializer.Format format,
+                                                        @Value("${cache.serializer.compression-threshold:1024}") int compressionThreshold) {
+        return new CompactRedisSerializer(format, compressionThreshold, getClass().getClassLoader());
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory, RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
         
         // 使用StringRedisSerializer来序列化和反序列化redis的key值
         template.setKeySerializer(new StringRedisSerializer());
-        // 使用GenericJackson2JsonRedisSerializer来序列化和反序列化redis的value值
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        // 使用CompactRedisSerializer来序列化和反序列化redis的value值
+        template.setValueSerializer(redisValueSerializer);
         
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(redisValueSerializer);
         
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * 响应式读路径使用的RedisTemplate，键值序列化与redisTemplate一致
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory factory,
+                                                                       RedisSerializer<Object> redisValueSerializer) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(redisValueSerializer)
+                .hashValue(redisValueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(factory, context);
+    }
+
+    /**
+     * 响应式读路径的缓存，与cacheManager共用缓存条目和依赖标签
+     */
+    @Bean
+    public ReactiveTaggedCache reactiveTaggedCache(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                                   ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                                   CacheLoadGuard cacheLoadGuard,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${spring.cache.redis.time-to-live:0}") long timeToLive) {
+        return new ReactiveTaggedCache(reactiveRedisTemplate, reactiveStringRedisTemplate, cacheLoadGuard,
+                meterRegistry, Duration.ofMillis(timeToLive));
+    }
+
+    /**
+     * 本地L1缓存，只对cache.near.caches中列出的缓存生效
+     */
+    @Bean
+    public NearCacheCoordinator nearCacheCoordinator(StringRedisTemplate stringRedisTemplate,
+                                                     @Value("${cache.near.enabled:false}") boolean enabled,
+                                                     @Value("${cache.near.caches:}") Set<String> cacheNames,
+                                                     @Value("${cache.near.maximum-size:10000}") long maximumSize,
+                                                     @Value("${cache.near.expire-after-write:30000}") long expireAfterWrite) {
+        return new NearCacheCoordinator(stringRedisTemplate, enabled ? cacheNames : Set.of(),
+                maximumSize, Duration.ofMillis(expireAfterWrite));
+    }
+
+    /**
+     * 实例间同步的发布订阅：L1缓存失效和进程内商品索引的更新
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory,
+                                                                       NearCacheCoordinator nearCacheCoordinator,
+                                                                       ProductIndexCoordinator productIndexCoordinator) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(nearCacheCoordinator, new ChannelTopic(NearCacheCoordinator.CHANNEL));
+        container.addMessageListener(productIndexCoordinator, new ChannelTopic(ProductIndexCoordinator.CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public CacheTagStore cacheTagStore(StringRedisTemplate stringRedisTemplate, NearCacheCoordinator nearCacheCoordinator) {
+        return new CacheTagStore(stringRedisTemplate, nearCacheCoordinator);
+    }
+
+    /**
+     * 缓存未命中时的单飞加载、跨实例加载锁、概率提前刷新和过期时间抖动
+     */
+    @Bean
+    public CacheLoadGuard cacheLoadGuard(StringRedisTemplate stringRedisTemplate,
+                                         @Value("${cache.stampede.lock-timeout:3000}") long lockTimeout,
+                                         @Value("${cache.stampede.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                                         @Value("${cache.stampede.ttl-jitter:0.1}") double ttlJitter) {
+        return new CacheLoadGuard(stringRedisTemplate, Duration.ofMillis(lockTimeout), earlyRefreshBeta, ttlJitter);
+    }
+
+    /**
+     * 带依赖标签的缓存管理器，写入缓存时登记条目依赖的实体，失效时按标签精确删除；
+     * spring.cache.cache-names中的缓存在启动时创建，各缓存的命中率等指标由RedisCacheWriter统计
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory factory, CacheTagStore cacheTagStore,
+                                     NearCacheCoordinator nearCacheCoordinator,
+                                     CacheLoadGuard cacheLoadGuard,
+                                     RedisSerializer<Object> redisValueSerializer,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${spring.cache.cache-names:}") String[] cacheNames,
+                                     @Value("${spring.cache.redis.time-to-live:0}") long timeToLive) {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer));
+        if (timeToLive > 0) {
+            config = config.entryTtl(Duration.ofMillis(timeToLive));
+        }
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(factory)
+                .withStatisticsCollector(CacheStatisticsCollector.create());
+        return new TaggedRedisCacheManager(cacheWriter, config, cacheTagStore, nearCacheCoordinator, cacheLoadGuard,
+                meterRegistry, cacheNames);
+    }
 }
\ No newline at end of file
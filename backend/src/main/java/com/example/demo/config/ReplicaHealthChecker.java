@@ -0,0 +1,79 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 从库健康检查：定期查询复制状态，复制中断、延迟超限或连接失败时摘除，
+ * 连续多次检查通过后重新启用
+ */
+@Component
+public class ReplicaHealthChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthChecker.class);
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Value("${spring.datasource.replica-health.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${spring.datasource.replica-health.recovery-checks:2}")
+    private int recoveryChecks;
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica-health.interval:5000}")
+    public void check() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            Long lag = null;
+            boolean passed;
+            try {
+                lag = replicationLag(replica);
+                passed = lag != null && lag <= maxLagSeconds;
+            } catch (SQLException | RuntimeException e) {
+                logger.debug("从库{}健康检查失败", replica.getName(), e);
+                passed = false;
+            }
+            if (replica.recordCheck(passed, lag, recoveryChecks)) {
+                if (replica.isHealthy()) {
+                    logger.info("从库{}恢复，重新加入读路由，延迟{}秒", replica.getName(), lag);
+                } else {
+                    logger.warn("从库{}已摘除，延迟{}秒", replica.getName(), lag);
+                }
+            }
+        }
+    }
+
+    /**
+     * 返回复制延迟秒数；复制线程未运行或不是从库时返回null
+     */
+    private Long replicationLag(ReplicaRoutingDataSource.Replica replica) throws SQLException {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return readLag(rs, "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL 8.0.22之前只支持旧语法
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return readLag(rs, "Seconds_Behind_Master");
+                }
+            }
+        }
+    }
+
+    private Long readLag(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.DisposableBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 读写分离路由数据源：写操作和未标记为读的操作走主库，
+ * 读操作在健康的从库中选择"在途请求数/权重"最小的一个，没有健康从库时回退主库；
+ * 请求带有一致性令牌时，只使用已应用该GTID集合的从库
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final Logger traceLogger = LoggerFactory.getLogger("com.example.demo.trace.routing");
+
+    public static final String MASTER_KEY = "master";
+
+    private volatile double gtidWaitSeconds = 0.05;
+
+    private JdbcQueryMetrics queryMetrics;
+
+    private final HikariDataSource master;
+
+    private final List<Replica> replicas;
+
+    public ReplicaRoutingDataSource(HikariDataSource master, List<Replica> replicas) {
+        this.master = master;
+        this.replicas = Collections.unmodifiableList(replicas);
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(MASTER_KEY, master);
+        for (Replica replica : replicas) {
+            targetDataSources.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(master);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource target = getResolvedDataSources().getOrDefault(key, master);
+        String token = ConsistencyTokenHolder.getToken();
+        if (token == null || target == master) {
+            Object routed = target == master ? MASTER_KEY : key;
+            if (RequestTraceHolder.isSampled()) {
+                traceRoute(routed, token);
+            }
+            return instrument(target.getConnection(), routed);
+        }
+        Connection connection = target.getConnection();
+        try {
+            if (hasApplied(connection, token)) {
+                if (RequestTraceHolder.isSampled()) {
+                    traceRoute(key, token);
+                }
+                return instrument(connection, key);
+            }
+        } catch (SQLException e) {
+            logger.debug("等待从库应用GTID失败，改用主库", e);
+        }
+        connection.close();
+        if (RequestTraceHolder.isSampled()) {
+            traceLogger.info("从库{}未应用一致性令牌，改用主库", key);
+        }
+        return instrument(master.getConnection(), MASTER_KEY);
+    }
+
+    /**
+     * 请求的类型来自事务的只读标记；请求从库却路由到主库说明没有健康的从库
+     */
+    private void traceRoute(Object routed, String token) {
+        traceLogger.info("请求{}，路由到{}，一致性令牌: {}", DataSourceContextHolder.getDataSourceKey(), routed,
+                token != null);
+    }
+
+    /**
+     * 设置了queryMetrics时按实际使用的数据源记录SQL耗时
+     */
+    private Connection instrument(Connection connection, Object key) {
+        return queryMetrics == null ? connection : queryMetrics.instrument(connection, key.toString());
+    }
+
+    /**
+     * WAIT_FOR_EXECUTED_GTID_SET在超时内应用完成返回0，超时返回1
+     */
+    private boolean hasApplied(Connection connection, String gtidSet) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT WAIT_FOR_EXECUTED_GTID_SET(?, ?)")) {
+            statement.setString(1, gtidSet);
+            statement.setDouble(2, gtidWaitSeconds);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 0;
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!DataSourceType.SLAVE.name().equals(DataSourceContextHolder.getDataSourceKey())) {
+            return MASTER_KEY;
+        }
+        Replica replica = selectReplica();
+        return replica != null ? replica.getName() : MASTER_KEY;
+    }
+
+    /**
+     * 从随机位置开始遍历，负载相同时请求仍能均匀分布到各从库
+     */
+    private Replica selectReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(size);
+        Replica selected = null;
+        double selectedScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            double score = (replica.getOutstandingRequests() + 1.0) / replica.getWeight();
+            if (score < selectedScore) {
+                selected = replica;
+                selectedScore = score;
+            }
+        }
+        return selected;
+    }
+
+    public void setGtidWaitMillis(long gtidWaitMillis) {
+        this.gtidWaitSeconds = gtidWaitMillis / 1000.0;
+    }
+
+    public void setQueryMetrics(JdbcQueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    public HikariDataSource getMaster() {
+        return master;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            replica.getDataSource().close();
+        }
+        master.close();
+    }
+
+    /**
+     * 从库节点及其健康状态，由ReplicaHealthChecker定期更新
+     */
+    public static class Replica {
+
+        private final String name;
+
+        private final HikariDataSource dataSource;
+
+        private final int weight;
+
+        private volatile boolean healthy = true;
+
+        private volatile Long lagSeconds;
+
+        private int consecutivePasses;
+
+        public Replica(String name, HikariDataSource dataSource, int weight) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.weight = Math.max(1, weight);
+        }
+
+        /**
+         * 连接池中正在使用和等待获取的连接数
+         */
+        public int getOutstandingRequests() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+        }
+
+        /**
+         * 检查通过时累计次数，达到recoveryChecks才重新启用；检查失败立即摘除
+         */
+        synchronized boolean recordCheck(boolean passed, Long lagSeconds, int recoveryChecks) {
+            this.lagSeconds = lagSeconds;
+            boolean previous = healthy;
+            if (!passed) {
+                consecutivePasses = 0;
+                healthy = false;
+            } else if (!healthy && ++consecutivePasses >= recoveryChecks) {
+                consecutivePasses = 0;
+                healthy = true;
+            }
+            return previous != healthy;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public Long getLagSeconds() {
+            return lagSeconds;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 为每个请求分配请求ID（沿用客户端传入的X-Request-Id），写入MDC和响应头，JSON日志中据此关联同一请求的日志；
+ * 按logging.trace.sample-rate随机采样请求，被采样的请求输出SQL和数据源路由跟踪日志。
+ * 请求头X-Trace强制采样仅在logging.trace.allow-header开启时生效，避免外部请求随意打开全量SQL日志
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    @Value("${logging.trace.sample-rate:0}")
+    private double sampleRate;
+
+    @Value("${logging.trace.allow-header:false}")
+    private boolean allowHeader;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(RequestTraceHolder.REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank() || requestId.length() > 64) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        boolean sampled = (allowHeader && isForced(request.getHeader(RequestTraceHolder.TRACE_HEADER)))
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        response.setHeader(RequestTraceHolder.REQUEST_ID_HEADER, requestId);
+        MDC.put(RequestTraceHolder.MDC_REQUEST_ID, requestId);
+        if (sampled) {
+            MDC.put(RequestTraceHolder.MDC_SAMPLED, "true");
+        }
+        RequestTraceHolder.setSampled(sampled);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTraceHolder.clear();
+            MDC.remove(RequestTraceHolder.MDC_REQUEST_ID);
+            MDC.remove(RequestTraceHolder.MDC_SAMPLED);
+        }
+    }
+
+    private static boolean isForced(String header) {
+        return "1".equals(header) || "true".equalsIgnoreCase(header);
+    }
+}
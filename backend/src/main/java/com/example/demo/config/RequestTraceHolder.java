@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+/**
+ * 当前请求是否被采样：被采样的请求额外输出每条SQL和数据源路由的跟踪日志，
+ * 未采样时跟踪代码只读取一次该标记，不构造日志消息
+ */
+public class RequestTraceHolder {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /**
+     * 客户端带上该请求头（值为1或true）时强制采样，便于排查单个请求
+     */
+    public static final String TRACE_HEADER = "X-Trace";
+
+    public static final String MDC_REQUEST_ID = "requestId";
+
+    public static final String MDC_SAMPLED = "sampled";
+
+    private static final ThreadLocal<Boolean> SAMPLED_HOLDER = new ThreadLocal<>();
+
+    public static void setSampled(boolean sampled) {
+        if (sampled) {
+            SAMPLED_HOLDER.set(Boolean.TRUE);
+        } else {
+            SAMPLED_HOLDER.remove();
+        }
+    }
+
+    public static boolean isSampled() {
+        return SAMPLED_HOLDER.get() != null;
+    }
+
+    public static void clear() {
+        SAMPLED_HOLDER.remove();
+    }
+}
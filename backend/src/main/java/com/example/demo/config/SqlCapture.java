@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * 在当前线程上截获即将执行的SQL及其绑定参数而不真正执行：执行时抛出CapturedException中止，
+ * 供QueryPlanAdvisor取得仓库查询方法生成的SQL后再做EXPLAIN。
+ * 只在创建Statement时检查一次是否处于截获状态，平时只多读一个volatile字段
+ */
+public final class SqlCapture {
+
+    private static final ThreadLocal<List<CapturedStatement>> CAPTURED = new ThreadLocal<>();
+
+    private static volatile boolean enabled;
+
+    private SqlCapture() {
+    }
+
+    public static void start() {
+        enabled = true;
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    public static List<CapturedStatement> stop() {
+        List<CapturedStatement> captured = CAPTURED.get();
+        CAPTURED.remove();
+        enabled = false;
+        return captured == null ? Collections.emptyList() : captured;
+    }
+
+    static boolean isActive() {
+        return enabled && CAPTURED.get() != null;
+    }
+
+    static void capture(String sql, SortedMap<Integer, Object> parameters) {
+        List<CapturedStatement> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(new CapturedStatement(sql, parameters));
+        }
+        throw new CapturedException();
+    }
+
+    /**
+     * parameters的键为JDBC参数序号（从1开始）
+     */
+    public record CapturedStatement(String sql, SortedMap<Integer, Object> parameters) {
+    }
+
+    /**
+     * 中止已截获的执行，不收集调用栈
+     */
+    public static class CapturedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        CapturedException() {
+            super("SQL captured, not executed", null, false, false);
+        }
+    }
+}
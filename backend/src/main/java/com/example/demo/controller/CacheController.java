@@ -0,0 +1,22 @@
+package com.example.demo.controller;
+
+import com.example.demo.cache.NearCacheCoordinator;
+import com.example.demo.util.ResponseUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    @Autowired
+    private NearCacheCoordinator nearCacheCoordinator;
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseUtil.success(nearCacheCoordinator.statistics());
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AsyncOrderStatus;
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderItemView;
+import com.example.demo.dto.OrderSubmission;
+import com.example.demo.dto.OrderSummary;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Order;
-import com.example.demo.model.OrderItem;
-import com.example.demo.model.Product;
-import com.example.demo.model.User;
+import com.example.demo.service.AsyncOrderService;
 import com.example.demo.service.OrderService;
+import com.example.demo.util.NdjsonUtil;
+import com.example.demo.util.PageUtil;
 import com.example.demo.util.ResponseUtil;
-import java.math.BigDecimal;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,138 +25,97 @@ import java.util.Map;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private AsyncOrderService asyncOrderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<?> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        return ResponseUtil.success(orders);
+    public ResponseEntity<?> getAllOrders(@RequestParam(defaultValue = "0") Long after,
+                                          @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        List<OrderSummary> orders = orderService.getOrders(after, pageSize);
+        return ResponseUtil.page(orders, PageUtil.nextAfter(orders, pageSize, OrderSummary::getId));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonUtil.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        return NdjsonUtil.<OrderSummary>stream(objectMapper, orderService::streamAllOrders);
     }
 
+    /**
+     * 用户订单按id降序，最新的订单在第一页；响应中的nextAfter作为下一页的before
+     */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getOrdersByUserId(@PathVariable Long userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
-        return ResponseUtil.success(orders);
+    public ResponseEntity<?> getOrdersByUserId(@PathVariable Long userId,
+                                               @RequestParam(defaultValue = "" + Long.MAX_VALUE) Long before,
+                                               @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        List<OrderSummary> orders = orderService.getOrdersByUserId(userId, before, pageSize);
+        return ResponseUtil.page(orders, PageUtil.nextAfter(orders, pageSize, OrderSummary::getId));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getOrdersByStatus(@PathVariable String status) {
-        List<Order> orders = orderService.getOrdersByStatus(status);
-        return ResponseUtil.success(orders);
+    public ResponseEntity<?> getOrdersByStatus(@PathVariable String status,
+                                               @RequestParam(defaultValue = "0") Long after,
+                                               @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        List<OrderSummary> orders = orderService.getOrdersByStatus(status, after, pageSize);
+        return ResponseUtil.page(orders, PageUtil.nextAfter(orders, pageSize, OrderSummary::getId));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getOrderById(@PathVariable Long id) {
-        Order order = orderService.getOrderById(id)
+        OrderDetail detail = orderService.getOrderDetail(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
-        
-        // 获取订单项
-        List<OrderItem> items = orderService.getOrderItemsByOrderId(id);
-        Map<String, Object> response = new HashMap<>();
-        response.put("order", order);
-        response.put("items", items);
-        
-        return ResponseUtil.success(response);
+        return ResponseUtil.success(detail);
     }
 
     @GetMapping("/orderNo/{orderNo}")
     public ResponseEntity<?> getOrderByOrderNo(@PathVariable String orderNo) {
-        Order order = orderService.getOrderByOrderNo(orderNo)
+        OrderDetail detail = orderService.getOrderDetailByOrderNo(orderNo)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with orderNo: " + orderNo));
-        
-        // 获取订单项
-        List<OrderItem> items = orderService.getOrderItemsByOrderId(order.getId());
-        Map<String, Object> response = new HashMap<>();
-        response.put("order", order);
-        response.put("items", items);
-        
-        return ResponseUtil.success(response);
+        return ResponseUtil.success(detail);
     }
 
     @PostMapping
     public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> request) {
         try {
-            Order order = new Order();
-            
-            // 从请求中提取订单信息并设置
-            if (request.containsKey("userId")) {
-                User user = new User();
-                user.setId(Long.valueOf(request.get("userId").toString()));
-                order.setUser(user);
-            }
-            
-            if (request.containsKey("totalAmount")) {
-                order.setTotalAmount(new BigDecimal(request.get("totalAmount").toString()));
-            }
-            
-            if (request.containsKey("totalQuantity")) {
-                order.setTotalQuantity(Integer.valueOf(request.get("totalQuantity").toString()));
-            }
-            
-            if (request.containsKey("status")) {
-                order.setStatus(request.get("status").toString());
-            }
-            
-            if (request.containsKey("shippingAddress")) {
-                order.setShippingAddress(request.get("shippingAddress").toString());
-            }
-            
-            if (request.containsKey("paymentMethod")) {
-                order.setPaymentMethod(request.get("paymentMethod").toString());
-            }
-            
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> itemsData = (List<Map<String, Object>>) request.get("items");
-            List<OrderItem> items = itemsData.stream().map(data -> {
-                OrderItem item = new OrderItem();
-                
-                // 从数据中提取订单项信息并设置
-                if (data.containsKey("quantity")) {
-                    item.setQuantity(Integer.valueOf(data.get("quantity").toString()));
-                }
-                
-                if (data.containsKey("price")) {
-                    item.setPrice(new BigDecimal(data.get("price").toString()));
-                }
-                
-                // 计算subtotal（price * quantity）
-                if (item.getPrice() != null && item.getQuantity() != null) {
-                    item.setSubtotal(item.getPrice().multiply(new BigDecimal(item.getQuantity())));
-                }
-                
-                // 支持两种方式：嵌套的product对象或直接的productId字段
-                Product product = new Product();
-                if (data.containsKey("productId")) {
-                    // 处理直接的productId字段
-                    product.setId(Long.valueOf(data.get("productId").toString()));
-                } else if (data.containsKey("product") && data.get("product") instanceof Map) {
-                    // 处理嵌套的product对象
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> productData = (Map<String, Object>) data.get("product");
-                    if (productData.containsKey("id")) {
-                        product.setId(Long.valueOf(productData.get("id").toString()));
-                    }
-                }
-                item.setProduct(product);
-                
-                // 设置产品名称，可以从请求中获取或使用默认值
-                if (data.containsKey("productName")) {
-                    item.setProductName(data.get("productName").toString());
-                } else {
-                    item.setProductName("Unknown Product");
-                }
-                
-                return item;
-            }).toList();
-            
-            Order createdOrder = orderService.createOrder(order, items);
+            OrderSubmission submission = OrderSubmission.fromRequest(request);
+            Order createdOrder = orderService.createOrder(submission.toOrder(), submission.toOrderItems());
             return ResponseUtil.success(createdOrder);
         } catch (Exception e) {
             return ResponseUtil.badRequest(e.getMessage());
         }
     }
 
+    /**
+     * 异步下单：校验后入队并返回202和订单号，通过GET /api/orders/async/{orderNo}查询处理结果
+     */
+    @PostMapping("/async")
+    public ResponseEntity<?> submitOrder(@RequestHeader(IDEMPOTENCY_KEY_HEADER) String clientKey,
+                                         @RequestBody Map<String, Object> request) {
+        try {
+            AsyncOrderStatus status = asyncOrderService.submit(clientKey, OrderSubmission.fromRequest(request));
+            return ResponseUtil.accepted(status);
+        } catch (Exception e) {
+            return ResponseUtil.badRequest(e.getMessage());
+        }
+    }
+
+    @GetMapping("/async/{orderNo}")
+    public ResponseEntity<?> getSubmissionStatus(@PathVariable String orderNo) {
+        AsyncOrderStatus status = asyncOrderService.getStatus(orderNo)
+                .orElseThrow(() -> new ResourceNotFoundException("Order submission not found with orderNo: " + orderNo));
+        return ResponseUtil.success(status);
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, @RequestParam String status) {
         try {
@@ -174,7 +138,7 @@ public class OrderController {
 
     @GetMapping("/{id}/items")
     public ResponseEntity<?> getOrderItems(@PathVariable Long id) {
-        List<OrderItem> items = orderService.getOrderItemsByOrderId(id);
+        List<OrderItemView> items = orderService.getOrderItemsByOrderId(id);
         return ResponseUtil.success(items);
     }
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.ProductSuggestion;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Product;
 import com.example.demo.service.ProductService;
+import com.example.demo.service.ProductSuggestService;
+import com.example.demo.util.NdjsonUtil;
+import com.example.demo.util.PageUtil;
 import com.example.demo.util.ResponseUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,30 +23,64 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<?> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseUtil.success(products);
+    public ResponseEntity<?> getAllProducts(@RequestParam(defaultValue = "0") Long after,
+                                            @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        List<Product> products = productService.getProducts(after, pageSize);
+        return ResponseUtil.page(products, PageUtil.nextAfter(products, pageSize, Product::getId));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonUtil.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        return NdjsonUtil.<Product>stream(objectMapper, productService::streamAllProducts);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<?> getActiveProducts() {
-        List<Product> products = productService.getActiveProducts();
-        return ResponseUtil.success(products);
+    public ResponseEntity<?> getActiveProducts(@RequestParam(defaultValue = "0") Long after,
+                                               @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        List<Product> products = productService.getActiveProducts(after, pageSize);
+        return ResponseUtil.page(products, PageUtil.nextAfter(products, pageSize, Product::getId));
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<?> getProductsByCategory(@PathVariable String category) {
-        List<Product> products = productService.getProductsByCategory(category);
-        return ResponseUtil.success(products);
+    public ResponseEntity<?> getProductsByCategory(@PathVariable String category,
+                                                   @RequestParam(defaultValue = "0") Long after,
+                                                   @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        List<Product> products = productService.getProductsByCategory(category, after, pageSize);
+        return ResponseUtil.page(products, PageUtil.nextAfter(products, pageSize, Product::getId));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchProducts(@RequestParam String keyword) {
-        List<Product> products = productService.searchProducts(keyword);
+    public ResponseEntity<?> searchProducts(@RequestParam String keyword,
+                                            @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        List<Product> products = productService.searchProducts(keyword, PageUtil.clampLimit(limit));
         return ResponseUtil.success(products);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestProducts(@RequestParam String prefix,
+                                             @RequestParam(defaultValue = "" + ProductSuggestService.MAX_SUGGESTIONS) int limit) {
+        List<ProductSuggestion> suggestions = productSuggestService.suggest(prefix, Math.max(1, limit));
+        return ResponseUtil.success(suggestions);
+    }
+
+    /**
+     * 商品总数，列表接口分页后不能再用列表长度计数
+     */
+    @GetMapping("/count")
+    public ResponseEntity<?> countProducts() {
+        return ResponseUtil.success(productService.countProducts());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getProductById(@PathVariable Long id) {
         Product product = productService.getProductById(id)
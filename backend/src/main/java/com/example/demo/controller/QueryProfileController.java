@@ -0,0 +1,34 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.QueryProfiler;
+import com.example.demo.util.ResponseUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/db")
+public class QueryProfileController {
+
+    @Autowired
+    private QueryProfiler queryProfiler;
+
+    /**
+     * 最近一到两个统计窗口内的SQL，按p99（默认）、total、count或rows排序
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<?> getSlowQueries(@RequestParam(defaultValue = "20") int limit,
+                                            @RequestParam(defaultValue = "p99") String sort) {
+        return ResponseUtil.success(queryProfiler.toReport(Math.max(1, limit), sort));
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<?> resetSlowQueries() {
+        queryProfiler.reset();
+        return ResponseUtil.success();
+    }
+}
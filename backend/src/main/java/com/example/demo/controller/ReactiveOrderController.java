@@ -0,0 +1,70 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.ReactiveOrderService;
+import com.example.demo.util.PageUtil;
+import com.example.demo.util.ResponseUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * 订单读接口的非阻塞版本，响应格式与/api/orders相同
+ */
+@RestController
+@RequestMapping("/api/reactive/orders")
+public class ReactiveOrderController {
+
+    @Autowired
+    private ReactiveOrderService reactiveOrderService;
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllOrders(@RequestParam(defaultValue = "0") Long after,
+                                                @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        return reactiveOrderService.getOrders(after, pageSize)
+                .map(orders -> ResponseUtil.page(orders, PageUtil.nextAfter(orders, pageSize, OrderSummary::getId)));
+    }
+
+    /**
+     * 用户订单按id降序，最新的订单在第一页；响应中的nextAfter作为下一页的before
+     */
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<?>> getOrdersByUserId(@PathVariable Long userId,
+                                                     @RequestParam(defaultValue = "" + Long.MAX_VALUE) Long before,
+                                                     @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        return reactiveOrderService.getOrdersByUserId(userId, before, pageSize)
+                .map(orders -> ResponseUtil.page(orders, PageUtil.nextAfter(orders, pageSize, OrderSummary::getId)));
+    }
+
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<?>> getOrdersByStatus(@PathVariable String status,
+                                                     @RequestParam(defaultValue = "0") Long after,
+                                                     @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        return reactiveOrderService.getOrdersByStatus(status, after, pageSize)
+                .map(orders -> ResponseUtil.page(orders, PageUtil.nextAfter(orders, pageSize, OrderSummary::getId)));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getOrderById(@PathVariable Long id) {
+        return reactiveOrderService.getOrderDetail(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order not found with id: " + id)))
+                .map(ResponseUtil::success);
+    }
+
+    @GetMapping("/orderNo/{orderNo}")
+    public Mono<ResponseEntity<?>> getOrderByOrderNo(@PathVariable String orderNo) {
+        return reactiveOrderService.getOrderDetailByOrderNo(orderNo)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order not found with orderNo: " + orderNo)))
+                .map(ResponseUtil::success);
+    }
+
+    @GetMapping("/{id}/items")
+    public Mono<ResponseEntity<?>> getOrderItems(@PathVariable Long id) {
+        return reactiveOrderService.getOrderItemsByOrderId(id).map(ResponseUtil::success);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.controller;
+
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Product;
+import com.example.demo.service.ReactiveProductService;
+import com.example.demo.util.PageUtil;
+import com.example.demo.util.ResponseUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * 商品读接口的非阻塞版本：请求线程在发起Redis/R2DBC调用后立即归还，结果就绪后异步写回响应，
+ * 响应格式与/api/products相同
+ */
+@RestController
+@RequestMapping("/api/reactive/products")
+public class ReactiveProductController {
+
+    @Autowired
+    private ReactiveProductService reactiveProductService;
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getAllProducts(@RequestParam(defaultValue = "0") Long after,
+                                                  @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        return reactiveProductService.getProducts(after, pageSize)
+                .map(products -> ResponseUtil.page(products, PageUtil.nextAfter(products, pageSize, Product::getId)));
+    }
+
+    @GetMapping("/active")
+    public Mono<ResponseEntity<?>> getActiveProducts(@RequestParam(defaultValue = "0") Long after,
+                                                     @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        return reactiveProductService.getActiveProducts(after, pageSize)
+                .map(products -> ResponseUtil.page(products, PageUtil.nextAfter(products, pageSize, Product::getId)));
+    }
+
+    @GetMapping("/category/{category}")
+    public Mono<ResponseEntity<?>> getProductsByCategory(@PathVariable String category,
+                                                         @RequestParam(defaultValue = "0") Long after,
+                                                         @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        return reactiveProductService.getProductsByCategory(category, after, pageSize)
+                .map(products -> ResponseUtil.page(products, PageUtil.nextAfter(products, pageSize, Product::getId)));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getProductById(@PathVariable Long id) {
+        return reactiveProductService.getProductById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Product not found with id: " + id)))
+                .map(ResponseUtil::success);
+    }
+}
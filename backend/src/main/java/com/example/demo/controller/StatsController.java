@@ -0,0 +1,60 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.OrderStatsService;
+import com.example.demo.util.ResponseUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * 订单统计，只读预先汇总的统计表，不扫描订单
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary() {
+        return ResponseUtil.success(orderStatsService.getSummary());
+    }
+
+    @GetMapping("/orders/status")
+    public ResponseEntity<?> getStatusStats() {
+        return ResponseUtil.success(orderStatsService.getStatusStats());
+    }
+
+    /**
+     * 日期为UTC，格式yyyy-MM-dd；默认最近30天（含今天）
+     */
+    @GetMapping("/orders/daily")
+    public ResponseEntity<?> getDailyStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        return ResponseUtil.success(orderStatsService.getDailyStats(start, end));
+    }
+
+    @GetMapping("/products/top")
+    public ResponseEntity<?> getTopProducts(@RequestParam(defaultValue = "10") int limit,
+                                            @RequestParam(defaultValue = "revenue") String sort) {
+        return ResponseUtil.success(orderStatsService.getTopProducts(limit, sort));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<?> getCategoryStats() {
+        return ResponseUtil.success(orderStatsService.getCategoryStats());
+    }
+}
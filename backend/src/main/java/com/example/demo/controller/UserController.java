@@ -2,10 +2,15 @@ package com.example.demo.controller;
 
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
+import com.example.demo.util.NdjsonUtil;
+import com.example.demo.util.PageUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,13 +19,39 @@ import java.util.Optional;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final String NEXT_AFTER_HEADER = "X-Next-After";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(defaultValue = "0") Long after,
+                                                  @RequestParam(defaultValue = "" + PageUtil.DEFAULT_LIMIT) int limit) {
+        int pageSize = PageUtil.clampLimit(limit);
+        List<User> users = userService.getUsers(after, pageSize);
+        // 下一页游标放在响应头中，保持响应体仍为用户数组
+        HttpHeaders headers = new HttpHeaders();
+        Long nextAfter = PageUtil.nextAfter(users, pageSize, User::getId);
+        if (nextAfter != null) {
+            headers.set(NEXT_AFTER_HEADER, nextAfter.toString());
+        }
+        return new ResponseEntity<>(users, headers, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonUtil.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return NdjsonUtil.<User>stream(objectMapper, userService::streamAllUsers);
+    }
+
+    /**
+     * 用户总数，列表接口分页后不能再用列表长度计数
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Long> countUsers() {
+        return ResponseEntity.ok(userService.countUsers());
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 异步下单的处理状态：QUEUED已入队，CREATED订单已创建，FAILED处理失败
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncOrderStatus {
+
+    public static final String QUEUED = "QUEUED";
+
+    public static final String CREATED = "CREATED";
+
+    public static final String FAILED = "FAILED";
+
+    private String orderNo;
+
+    private String status;
+
+    private Long orderId;
+
+    private String message;
+}
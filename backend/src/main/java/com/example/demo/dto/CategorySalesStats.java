@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品分类销量（不含已取消订单）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySalesStats {
+
+    private String category;
+
+    private long quantity;
+
+    private BigDecimal revenue;
+
+    private long orderCount;
+}
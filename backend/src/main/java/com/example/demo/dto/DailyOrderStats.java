@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 按下单日期（UTC）统计：订单数、销售额（不含已取消订单）和其中已取消的订单数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOrderStats {
+
+    private LocalDate date;
+
+    private long orderCount;
+
+    private BigDecimal revenue;
+
+    private long cancelledCount;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 订单详情聚合：订单（含下单用户）和全部订单项，作为一个整体加载、缓存和失效
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Order order;
+
+    private List<OrderItemView> items;
+}
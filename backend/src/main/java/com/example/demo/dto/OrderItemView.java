@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * 订单项视图：订单和商品只带id，商品名称和价格取下单时的快照，字段顺序即构造参数顺序
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemView implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long orderId;
+
+    private Long productId;
+
+    private String productName;
+
+    private Integer quantity;
+
+    private BigDecimal price;
+
+    private BigDecimal subtotal;
+}
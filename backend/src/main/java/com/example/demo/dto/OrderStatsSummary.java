@@ -0,0 +1,27 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 仪表盘汇总：订单总数、销售额（不含已取消订单）、今日（UTC）订单数和销售额、各状态订单数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsSummary {
+
+    private long orderCount;
+
+    private BigDecimal revenue;
+
+    private long todayOrderCount;
+
+    private BigDecimal todayRevenue;
+
+    private List<OrderStatusStats> statuses;
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 某状态下的订单数和订单金额合计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusStats {
+
+    private String status;
+
+    private long orderCount;
+
+    private BigDecimal totalAmount;
+}
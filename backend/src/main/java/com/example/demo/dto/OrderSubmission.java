@@ -0,0 +1,154 @@
+package com.example.demo.dto;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 下单请求，同步下单直接转换为订单实体，异步下单序列化后进入队列
+ */
+@Data
+public class OrderSubmission implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+
+    private BigDecimal totalAmount;
+
+    private Integer totalQuantity;
+
+    private String status;
+
+    private String shippingAddress;
+
+    private String paymentMethod;
+
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    public static class Item implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long productId;
+
+        private String productName;
+
+        private Integer quantity;
+
+        private BigDecimal price;
+    }
+
+    /**
+     * 从请求参数中提取订单信息，订单项支持嵌套的product对象或直接的productId字段
+     */
+    @SuppressWarnings("unchecked")
+    public static OrderSubmission fromRequest(Map<String, Object> request) {
+        OrderSubmission submission = new OrderSubmission();
+        if (request.containsKey("userId")) {
+            submission.setUserId(Long.valueOf(request.get("userId").toString()));
+        }
+        if (request.containsKey("totalAmount")) {
+            submission.setTotalAmount(new BigDecimal(request.get("totalAmount").toString()));
+        }
+        if (request.containsKey("totalQuantity")) {
+            submission.setTotalQuantity(Integer.valueOf(request.get("totalQuantity").toString()));
+        }
+        if (request.containsKey("status")) {
+            submission.setStatus(request.get("status").toString());
+        }
+        if (request.containsKey("shippingAddress")) {
+            submission.setShippingAddress(request.get("shippingAddress").toString());
+        }
+        if (request.containsKey("paymentMethod")) {
+            submission.setPaymentMethod(request.get("paymentMethod").toString());
+        }
+
+        List<Map<String, Object>> itemsData = (List<Map<String, Object>>) request.get("items");
+        for (Map<String, Object> data : itemsData) {
+            Item item = new Item();
+            if (data.containsKey("quantity")) {
+                item.setQuantity(Integer.valueOf(data.get("quantity").toString()));
+            }
+            if (data.containsKey("price")) {
+                item.setPrice(new BigDecimal(data.get("price").toString()));
+            }
+            if (data.containsKey("productId")) {
+                item.setProductId(Long.valueOf(data.get("productId").toString()));
+            } else if (data.containsKey("product") && data.get("product") instanceof Map) {
+                Map<String, Object> productData = (Map<String, Object>) data.get("product");
+                if (productData.containsKey("id")) {
+                    item.setProductId(Long.valueOf(productData.get("id").toString()));
+                }
+            }
+            // 设置产品名称，可以从请求中获取或使用默认值
+            item.setProductName(data.containsKey("productName") ? data.get("productName").toString() : "Unknown Product");
+            submission.getItems().add(item);
+        }
+        return submission;
+    }
+
+    /**
+     * 异步下单在入队前校验，避免明显无效的请求占用队列
+     */
+    public void validate() {
+        if (userId == null) {
+            throw new BadRequestException("userId is required");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("items must not be empty");
+        }
+        for (Item item : items) {
+            if (item.getProductId() == null) {
+                throw new BadRequestException("productId is required for every item");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new BadRequestException("quantity must be positive for product: " + item.getProductId());
+            }
+        }
+    }
+
+    public Order toOrder() {
+        Order order = new Order();
+        if (userId != null) {
+            User user = new User();
+            user.setId(userId);
+            order.setUser(user);
+        }
+        order.setTotalAmount(totalAmount);
+        order.setTotalQuantity(totalQuantity);
+        order.setStatus(status);
+        order.setShippingAddress(shippingAddress);
+        order.setPaymentMethod(paymentMethod);
+        return order;
+    }
+
+    public List<OrderItem> toOrderItems() {
+        List<OrderItem> orderItems = new ArrayList<>(items.size());
+        for (Item data : items) {
+            OrderItem item = new OrderItem();
+            item.setQuantity(data.getQuantity());
+            item.setPrice(data.getPrice());
+            // 计算subtotal（price * quantity）
+            if (item.getPrice() != null && item.getQuantity() != null) {
+                item.setSubtotal(item.getPrice().multiply(new BigDecimal(item.getQuantity())));
+            }
+            Product product = new Product();
+            product.setId(data.getProductId());
+            item.setProduct(product);
+            item.setProductName(data.getProductName());
+            orderItems.add(item);
+        }
+        return orderItems;
+    }
+}
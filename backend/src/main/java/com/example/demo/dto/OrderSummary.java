@@ -0,0 +1,42 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * 订单列表视图：只带下单用户的id和用户名，由JPQL构造表达式在一条查询中取出，字段顺序即构造参数顺序
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String orderNo;
+
+    private Long userId;
+
+    private String username;
+
+    private BigDecimal totalAmount;
+
+    private Integer totalQuantity;
+
+    private String status;
+
+    private String shippingAddress;
+
+    private String paymentMethod;
+
+    private Date createdAt;
+
+    private Date updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品销量（不含已取消订单），商品名称取最近一次下单时的快照
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesStats {
+
+    private Long productId;
+
+    private String productName;
+
+    private long quantity;
+
+    private BigDecimal revenue;
+
+    private long orderCount;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 输入联想结果：商品名称（带商品id）或分类
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestion {
+
+    public static final String TYPE_PRODUCT = "PRODUCT";
+
+    public static final String TYPE_CATEGORY = "CATEGORY";
+
+    private String text;
+
+    private String type;
+
+    private Long productId;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.exception;
+
+/**
+ * 单个请求执行的SQL条数超过sql.budget.max-queries（sql.budget.action=fail时抛出）
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -21,7 +21,7 @@ public class Order implements Serializable {
     @Column(name = "order_no", nullable = false, unique = true)
     private String orderNo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
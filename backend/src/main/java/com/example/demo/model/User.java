@@ -1,5 +1,6 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -19,6 +20,10 @@ public class User implements Serializable {
     @Column(nullable = false, unique = true)
     private String username;
 
+    /**
+     * 只接收不输出，响应和缓存中都不包含密码
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
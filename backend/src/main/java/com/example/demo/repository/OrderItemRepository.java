@@ -1,16 +1,23 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.OrderItemView;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, OrderItemRepositoryCustom {
 
     List<OrderItem> findByOrder(Order order);
 
-    List<OrderItem> findByOrderId(Long orderId);
-}
\ No newline at end of file
+    /**
+     * 订单和商品只取外键列，不关联查询
+     */
+    @Query("select new com.example.demo.dto.OrderItemView(i.id, i.order.id, i.product.id, i.productName, "
+            + "i.quantity, i.price, i.subtotal) from OrderItem i where i.order.id = :orderId order by i.id")
+    List<OrderItemView> findViewsByOrderId(Long orderId);
+}
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * 订单项的批量JDBC写入
+ */
+public interface OrderItemRepositoryCustom {
+
+    /**
+     * 在同一个JDBC批次中插入订单的全部订单项
+     */
+    void saveAllInBatch(Order order, List<OrderItem> items);
+}
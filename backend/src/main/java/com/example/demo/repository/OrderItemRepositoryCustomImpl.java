@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderItemRepositoryCustomImpl implements OrderItemRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO order_items "
+            + "(order_id, product_id, product_name, quantity, price, subtotal) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void saveAllInBatch(Order order, List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            args.add(new Object[]{
+                    order.getId(),
+                    item.getProduct().getId(),
+                    item.getProductName(),
+                    item.getQuantity(),
+                    item.getPrice(),
+                    item.getSubtotal()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+}
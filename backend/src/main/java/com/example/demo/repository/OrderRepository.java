@@ -1,21 +1,73 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.OrderSummary;
 import com.example.demo.model.Order;
-import com.example.demo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    String SUMMARY_SELECT = "select new com.example.demo.dto.OrderSummary(o.id, o.orderNo, u.id, u.username, "
+            + "o.totalAmount, o.totalQuantity, o.status, o.shippingAddress, o.paymentMethod, o.createdAt, o.updatedAt) "
+            + "from Order o join o.user u ";
+
+    String DETAIL_SELECT = "select o, i from Order o join fetch o.user left join OrderItem i on i.order = o ";
+
+    /**
+     * 单个订单连同下单用户一条查询取回
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Order> findById(Long id);
+
+    @EntityGraph(attributePaths = "user")
     Optional<Order> findByOrderNo(String orderNo);
 
-    List<Order> findByUser(User user);
+    /**
+     * 订单详情：订单、下单用户和订单项在一条查询中取回，每行为[Order, OrderItem]，没有订单项时OrderItem为null
+     */
+    @Query(DETAIL_SELECT + "where o.id = :id order by i.id")
+    List<Object[]> findDetailRowsById(Long id);
+
+    @Query(DETAIL_SELECT + "where o.orderNo = :orderNo order by i.id")
+    List<Object[]> findDetailRowsByOrderNo(String orderNo);
+
+    /**
+     * 游标分页：该状态下id大于after的下一页，按id升序
+     */
+    @Query(SUMMARY_SELECT + "where o.status = :status and o.id > :after order by o.id")
+    List<OrderSummary> findSummariesByStatus(String status, Long after, Pageable pageable);
+
+    /**
+     * 游标分页：该用户id小于before的下一页，按id降序（最新的订单在前）
+     */
+    @Query(SUMMARY_SELECT + "where u.id = :userId and o.id < :before order by o.id desc")
+    List<OrderSummary> findSummariesByUserId(Long userId, Long before, Pageable pageable);
 
-    List<Order> findByStatus(String status);
+    /**
+     * 游标分页：返回id大于after的下一页，按id升序
+     */
+    @Query(SUMMARY_SELECT + "where o.id > :after order by o.id")
+    List<OrderSummary> findSummariesAfter(Long after, Pageable pageable);
 
-    List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
-}
\ No newline at end of file
+    /**
+     * MySQL流式读取全表，需要在只读事务内消费
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "order by o.id")
+    Stream<OrderSummary> streamAllSummaries();
+}
@@ -0,0 +1,144 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.CategorySalesStats;
+import com.example.demo.dto.DailyOrderStats;
+import com.example.demo.dto.OrderStatusStats;
+import com.example.demo.dto.ProductSalesStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 订单统计汇总表（V3__order_statistics.sql）的读写。写入都是"加上增量"的upsert，同一事务内按键的顺序执行；
+ * 读取时对slot求和
+ */
+@Repository
+public class OrderStatsRepository {
+
+    private static final String ADD_STATUS_SQL = "INSERT INTO order_status_stats "
+            + "(status, slot, order_count, total_amount) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "total_amount = total_amount + VALUES(total_amount)";
+
+    private static final String ADD_DAILY_SQL = "INSERT INTO order_daily_stats "
+            + "(stat_date, slot, order_count, revenue, cancelled_count) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+            + "revenue = revenue + VALUES(revenue), cancelled_count = cancelled_count + VALUES(cancelled_count)";
+
+    // 取消订单（数量为负）时保留原来的商品名称
+    private static final String ADD_PRODUCT_SQL = "INSERT INTO product_sales_stats "
+            + "(product_id, slot, product_name, quantity, revenue, order_count) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "product_name = IF(VALUES(quantity) > 0, VALUES(product_name), product_name), "
+            + "quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue), "
+            + "order_count = order_count + VALUES(order_count)";
+
+    private static final String ADD_CATEGORY_SQL = "INSERT INTO category_sales_stats "
+            + "(category, slot, quantity, revenue, order_count) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), "
+            + "revenue = revenue + VALUES(revenue), order_count = order_count + VALUES(order_count)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void addStatus(int slot, String status, long orderCount, BigDecimal amount) {
+        jdbcTemplate.update(ADD_STATUS_SQL, status, slot, orderCount, amount);
+    }
+
+    public void addDaily(int slot, LocalDate date, long orderCount, BigDecimal revenue, long cancelledCount) {
+        jdbcTemplate.update(ADD_DAILY_SQL, date, slot, orderCount, revenue, cancelledCount);
+    }
+
+    /**
+     * 调用方按商品id排序，与其他事务以相同顺序加锁
+     */
+    public void addProductSales(int slot, Collection<ProductSalesStats> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (ProductSalesStats delta : deltas) {
+            args.add(new Object[]{delta.getProductId(), slot, delta.getProductName(), delta.getQuantity(),
+                    delta.getRevenue(), delta.getOrderCount()});
+        }
+        jdbcTemplate.batchUpdate(ADD_PRODUCT_SQL, args);
+    }
+
+    /**
+     * 调用方按分类名排序，与其他事务以相同顺序加锁
+     */
+    public void addCategorySales(int slot, Collection<CategorySalesStats> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (CategorySalesStats delta : deltas) {
+            args.add(new Object[]{delta.getCategory(), slot, delta.getQuantity(), delta.getRevenue(),
+                    delta.getOrderCount()});
+        }
+        jdbcTemplate.batchUpdate(ADD_CATEGORY_SQL, args);
+    }
+
+    /**
+     * 商品id到当前分类，没有分类的商品不在结果中
+     */
+    public Map<Long, String> findCategories(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String placeholders = productIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        Map<Long, String> categories = new HashMap<>();
+        jdbcTemplate.query("SELECT id, category FROM products WHERE id IN (" + placeholders + ") AND category IS NOT NULL",
+                rs -> {
+                    categories.put(rs.getLong("id"), rs.getString("category"));
+                }, productIds.toArray());
+        return categories;
+    }
+
+    public List<OrderStatusStats> findStatusStats() {
+        return jdbcTemplate.query("SELECT status, SUM(order_count) AS order_count, SUM(total_amount) AS total_amount "
+                        + "FROM order_status_stats GROUP BY status HAVING SUM(order_count) <> 0 ORDER BY status",
+                (rs, rowNum) -> new OrderStatusStats(rs.getString("status"), rs.getLong("order_count"),
+                        rs.getBigDecimal("total_amount")));
+    }
+
+    public List<DailyOrderStats> findDailyStats(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT stat_date, SUM(order_count) AS order_count, SUM(revenue) AS revenue, "
+                        + "SUM(cancelled_count) AS cancelled_count FROM order_daily_stats "
+                        + "WHERE stat_date BETWEEN ? AND ? GROUP BY stat_date ORDER BY stat_date",
+                (rs, rowNum) -> new DailyOrderStats(rs.getObject("stat_date", LocalDate.class),
+                        rs.getLong("order_count"), rs.getBigDecimal("revenue"), rs.getLong("cancelled_count")),
+                from, to);
+    }
+
+    /**
+     * 按销售额或销量取前limit个商品；orderBy只能是revenue或quantity
+     */
+    public List<ProductSalesStats> findTopProducts(String orderBy, int limit) {
+        return jdbcTemplate.query("SELECT product_id, MAX(product_name) AS product_name, SUM(quantity) AS quantity, "
+                        + "SUM(revenue) AS revenue, SUM(order_count) AS order_count FROM product_sales_stats "
+                        + "GROUP BY product_id HAVING SUM(quantity) > 0 "
+                        + "ORDER BY " + orderBy + " DESC, product_id LIMIT ?",
+                (rs, rowNum) -> new ProductSalesStats(rs.getLong("product_id"), rs.getString("product_name"),
+                        rs.getLong("quantity"), rs.getBigDecimal("revenue"), rs.getLong("order_count")),
+                limit);
+    }
+
+    public List<CategorySalesStats> findCategoryStats() {
+        return jdbcTemplate.query("SELECT category, SUM(quantity) AS quantity, SUM(revenue) AS revenue, "
+                        + "SUM(order_count) AS order_count FROM category_sales_stats "
+                        + "GROUP BY category HAVING SUM(quantity) > 0 ORDER BY revenue DESC, category",
+                (rs, rowNum) -> new CategorySalesStats(rs.getString("category"), rs.getLong("quantity"),
+                        rs.getBigDecimal("revenue"), rs.getLong("order_count")));
+    }
+}
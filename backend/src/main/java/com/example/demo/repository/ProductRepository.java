@@ -1,20 +1,42 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
-    List<Product> findByCategory(String category);
+    /**
+     * 游标分页：该分类下id大于after的下一页，按id升序
+     */
+    List<Product> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Long after, Pageable pageable);
 
-    List<Product> findByStatusTrue();
-
-    List<Product> findByNameContainingIgnoreCase(String keyword);
+    List<Product> findByStatusTrueAndIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
 
     Optional<Product> findByName(String name);
+
+    /**
+     * 游标分页：返回id大于after的下一页，按id升序
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    /**
+     * MySQL流式读取全表，需要在只读事务内消费
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 商品库存的批量JDBC操作，供库存预占引擎使用
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * 按主键升序对商品加行锁（SELECT ... FOR UPDATE），只返回id、名称和库存
+     */
+    List<Product> lockStock(Collection<Long> ids);
+
+    /**
+     * 在同一个JDBC批次中按条件扣减库存，库存不足的行影响行数为0
+     */
+    int[] updateStockDecrement(Map<Long, Integer> quantities);
+
+    /**
+     * 在同一个JDBC批次中回补库存
+     */
+    int[] updateStockIncrement(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,53 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String DECREMENT_SQL = "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?";
+
+    private static final String INCREMENT_SQL = "UPDATE products SET stock = stock + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Product> lockStock(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 所有事务都按主键升序加锁，避免交叉加锁导致死锁
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(","));
+        String sql = "SELECT id, name, stock FROM products WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Product product = new Product();
+            product.setId(rs.getLong("id"));
+            product.setName(rs.getString("name"));
+            product.setStock(rs.getInt("stock"));
+            return product;
+        }, ids.toArray());
+    }
+
+    @Override
+    public int[] updateStockDecrement(Map<Long, Integer> quantities) {
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> args.add(new Object[]{quantity, id, quantity}));
+        return jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+    }
+
+    @Override
+    public int[] updateStockIncrement(Map<Long, Integer> quantities) {
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> args.add(new Object[]{quantity, id}));
+        return jdbcTemplate.batchUpdate(INCREMENT_SQL, args);
+    }
+}
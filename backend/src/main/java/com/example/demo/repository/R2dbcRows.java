@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import io.r2dbc.spi.Readable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * R2DBC结果行到实体的映射，列名与JPA实体的表结构一致；prefix为联表查询时列别名的前缀
+ */
+final class R2dbcRows {
+
+    static final String PRODUCT_COLUMNS = "id, name, description, price, stock, image_url, category, status, created_at, updated_at";
+
+    private R2dbcRows() {
+    }
+
+    static Product product(Readable row, String prefix) {
+        Product product = new Product();
+        product.setId(row.get(prefix + "id", Long.class));
+        product.setName(row.get(prefix + "name", String.class));
+        product.setDescription(row.get(prefix + "description", String.class));
+        product.setPrice(row.get(prefix + "price", BigDecimal.class));
+        product.setStock(row.get(prefix + "stock", Integer.class));
+        product.setImageUrl(row.get(prefix + "image_url", String.class));
+        product.setCategory(row.get(prefix + "category", String.class));
+        product.setStatus(row.get(prefix + "status", Boolean.class));
+        product.setCreatedAt(date(row.get(prefix + "created_at", LocalDateTime.class)));
+        product.setUpdatedAt(date(row.get(prefix + "updated_at", LocalDateTime.class)));
+        return product;
+    }
+
+    static User user(Readable row, String prefix) {
+        User user = new User();
+        user.setId(row.get(prefix + "id", Long.class));
+        user.setUsername(row.get(prefix + "username", String.class));
+        user.setEmail(row.get(prefix + "email", String.class));
+        user.setPhone(row.get(prefix + "phone", String.class));
+        user.setFullName(row.get(prefix + "full_name", String.class));
+        user.setCreatedAt(date(row.get(prefix + "created_at", LocalDateTime.class)));
+        user.setUpdatedAt(date(row.get(prefix + "updated_at", LocalDateTime.class)));
+        return user;
+    }
+
+    /**
+     * DATETIME按UTC解释，与JDBC连接的serverTimezone=UTC一致
+     */
+    static Date date(LocalDateTime value) {
+        return value == null ? null : Date.from(value.toInstant(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderItemView;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Order;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 订单只读查询的R2DBC实现，结果类型与OrderService一致：详情为OrderDetail，列表为OrderSummary
+ */
+@Repository
+public class ReactiveOrderRepository {
+
+    private static final String ORDER_COLUMNS = "o.id, o.order_no, o.total_amount, o.total_quantity, o.status, "
+            + "o.shipping_address, o.payment_method, o.created_at, o.updated_at, ";
+
+    /**
+     * 订单详情：订单、下单用户和订单项一条查询取回，没有订单项时只有一行且订单项列为NULL
+     */
+    private static final String SELECT_DETAIL_SQL = "SELECT " + ORDER_COLUMNS
+            + "u.id AS u_id, u.username AS u_username, u.email AS u_email, u.phone AS u_phone, "
+            + "u.full_name AS u_full_name, u.created_at AS u_created_at, u.updated_at AS u_updated_at, "
+            + "oi.id AS i_id, oi.product_id AS i_product_id, oi.product_name AS i_product_name, "
+            + "oi.quantity AS i_quantity, oi.price AS i_price, oi.subtotal AS i_subtotal "
+            + "FROM orders o JOIN users u ON u.id = o.user_id LEFT JOIN order_items oi ON oi.order_id = o.id";
+
+    private static final String SELECT_SUMMARY_SQL = "SELECT " + ORDER_COLUMNS + "u.id AS u_id, u.username AS u_username "
+            + "FROM orders o JOIN users u ON u.id = o.user_id";
+
+    private static final String SELECT_ITEMS_SQL = "SELECT id, order_id, product_id, product_name, quantity, price, subtotal "
+            + "FROM order_items WHERE order_id = :orderId ORDER BY id";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<OrderDetail> findDetailById(Long id) {
+        return detail(databaseClient.sql(SELECT_DETAIL_SQL + " WHERE o.id = :id ORDER BY oi.id")
+                .bind("id", id)
+                .map(ReactiveOrderRepository::detailRow)
+                .all());
+    }
+
+    public Mono<OrderDetail> findDetailByOrderNo(String orderNo) {
+        return detail(databaseClient.sql(SELECT_DETAIL_SQL + " WHERE o.order_no = :orderNo ORDER BY oi.id")
+                .bind("orderNo", orderNo)
+                .map(ReactiveOrderRepository::detailRow)
+                .all());
+    }
+
+    /**
+     * 游标分页：返回id大于after的下一页，按id升序
+     */
+    public Flux<OrderSummary> findSummariesAfter(Long after, int limit) {
+        return databaseClient.sql(SELECT_SUMMARY_SQL + " WHERE o.id > :after ORDER BY o.id LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveOrderRepository::summary)
+                .all();
+    }
+
+    /**
+     * 游标分页：该用户id小于before的下一页，按id降序（最新的订单在前）
+     */
+    public Flux<OrderSummary> findSummariesByUserId(Long userId, Long before, int limit) {
+        return databaseClient.sql(SELECT_SUMMARY_SQL + " WHERE o.user_id = :userId AND o.id < :before ORDER BY o.id DESC LIMIT :limit")
+                .bind("userId", userId)
+                .bind("before", before)
+                .bind("limit", limit)
+                .map(ReactiveOrderRepository::summary)
+                .all();
+    }
+
+    public Flux<OrderSummary> findSummariesByStatus(String status, Long after, int limit) {
+        return databaseClient.sql(SELECT_SUMMARY_SQL + " WHERE o.status = :status AND o.id > :after ORDER BY o.id LIMIT :limit")
+                .bind("status", status)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveOrderRepository::summary)
+                .all();
+    }
+
+    public Flux<OrderItemView> findViewsByOrderId(Long orderId) {
+        return databaseClient.sql(SELECT_ITEMS_SQL)
+                .bind("orderId", orderId)
+                .map(row -> new OrderItemView(
+                        row.get("id", Long.class),
+                        row.get("order_id", Long.class),
+                        row.get("product_id", Long.class),
+                        row.get("product_name", String.class),
+                        row.get("quantity", Integer.class),
+                        row.get("price", BigDecimal.class),
+                        row.get("subtotal", BigDecimal.class)))
+                .all();
+    }
+
+    private static Mono<OrderDetail> detail(Flux<DetailRow> rows) {
+        return rows.collectList()
+                .filter(list -> !list.isEmpty())
+                .map(list -> {
+                    List<OrderItemView> items = new ArrayList<>(list.size());
+                    for (DetailRow row : list) {
+                        if (row.item() != null) {
+                            items.add(row.item());
+                        }
+                    }
+                    return new OrderDetail(list.get(0).order(), items);
+                });
+    }
+
+    private static DetailRow detailRow(Readable row) {
+        Order order = order(row);
+        Long itemId = row.get("i_id", Long.class);
+        OrderItemView item = itemId == null ? null : new OrderItemView(
+                itemId,
+                order.getId(),
+                row.get("i_product_id", Long.class),
+                row.get("i_product_name", String.class),
+                row.get("i_quantity", Integer.class),
+                row.get("i_price", BigDecimal.class),
+                row.get("i_subtotal", BigDecimal.class));
+        return new DetailRow(order, item);
+    }
+
+    private static Order order(Readable row) {
+        Order order = new Order();
+        order.setId(row.get("id", Long.class));
+        order.setOrderNo(row.get("order_no", String.class));
+        order.setUser(R2dbcRows.user(row, "u_"));
+        order.setTotalAmount(row.get("total_amount", BigDecimal.class));
+        order.setTotalQuantity(row.get("total_quantity", Integer.class));
+        order.setStatus(row.get("status", String.class));
+        order.setShippingAddress(row.get("shipping_address", String.class));
+        order.setPaymentMethod(row.get("payment_method", String.class));
+        order.setCreatedAt(R2dbcRows.date(row.get("created_at", LocalDateTime.class)));
+        order.setUpdatedAt(R2dbcRows.date(row.get("updated_at", LocalDateTime.class)));
+        return order;
+    }
+
+    private static OrderSummary summary(Readable row) {
+        return new OrderSummary(
+                row.get("id", Long.class),
+                row.get("order_no", String.class),
+                row.get("u_id", Long.class),
+                row.get("u_username", String.class),
+                row.get("total_amount", BigDecimal.class),
+                row.get("total_quantity", Integer.class),
+                row.get("status", String.class),
+                row.get("shipping_address", String.class),
+                row.get("payment_method", String.class),
+                R2dbcRows.date(row.get("created_at", LocalDateTime.class)),
+                R2dbcRows.date(row.get("updated_at", LocalDateTime.class)));
+    }
+
+    private record DetailRow(Order order, OrderItemView item) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 商品只读查询的R2DBC实现，供响应式读路径使用
+ */
+@Repository
+public class ReactiveProductRepository {
+
+    private static final String SELECT_SQL = "SELECT " + R2dbcRows.PRODUCT_COLUMNS + " FROM products";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql(SELECT_SQL + " WHERE id = :id")
+                .bind("id", id)
+                .map(row -> R2dbcRows.product(row, ""))
+                .one();
+    }
+
+    /**
+     * 游标分页：返回id大于after的下一页，按id升序
+     */
+    public Flux<Product> findByIdGreaterThan(Long after, int limit) {
+        return databaseClient.sql(SELECT_SQL + " WHERE id > :after ORDER BY id LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> R2dbcRows.product(row, ""))
+                .all();
+    }
+
+    public Flux<Product> findByCategory(String category, Long after, int limit) {
+        return databaseClient.sql(SELECT_SQL + " WHERE category = :category AND id > :after ORDER BY id LIMIT :limit")
+                .bind("category", category)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> R2dbcRows.product(row, ""))
+                .all();
+    }
+
+    public Flux<Product> findByStatusTrue(Long after, int limit) {
+        return databaseClient.sql(SELECT_SQL + " WHERE status = TRUE AND id > :after ORDER BY id LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> R2dbcRows.product(row, ""))
+                .all();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AsyncOrderStatus;
+import com.example.demo.dto.OrderSubmission;
+
+import java.util.Optional;
+
+public interface AsyncOrderService {
+
+    /**
+     * 校验后入队并返回订单号；相同clientKey重复提交时返回第一次提交的订单号和状态
+     */
+    AsyncOrderStatus submit(String clientKey, OrderSubmission submission);
+
+    Optional<AsyncOrderStatus> getStatus(String orderNo);
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import java.util.Map;
+
+public interface HotStockService {
+
+    boolean isHot(Long productId);
+
+    void reserve(Map<Long, Integer> quantities);
+
+    void release(Map<Long, Integer> quantities);
+
+    void resetStock(Long productId, Integer stock);
+
+    void flush();
+}
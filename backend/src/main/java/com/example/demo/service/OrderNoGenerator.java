@@ -0,0 +1,9 @@
+package com.example.demo.service;
+
+/**
+ * 订单号生成策略，替换实现时注册另一个该类型的Bean即可
+ */
+public interface OrderNoGenerator {
+
+    String nextOrderNo();
+}
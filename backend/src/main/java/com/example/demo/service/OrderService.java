@@ -1,21 +1,40 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderItemView;
+import com.example.demo.dto.OrderSummary;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
-    List<Order> getAllOrders();
+    List<OrderSummary> getOrders(Long after, int limit);
 
-    Optional<Order> getOrderById(Long id);
+    void streamAllOrders(Consumer<OrderSummary> consumer);
 
+    /**
+     * 订单详情（订单和订单项），按id或订单号查询共用同一份缓存内容
+     */
+    Optional<OrderDetail> getOrderDetail(Long id);
+
+    Optional<OrderDetail> getOrderDetailByOrderNo(String orderNo);
+
+    /**
+     * 直接查询数据库，不经过缓存；异步下单据此判断订单是否已创建
+     */
     Optional<Order> getOrderByOrderNo(String orderNo);
 
-    List<Order> getOrdersByUserId(Long userId);
+    List<OrderSummary> getOrdersByUserId(Long userId, Long before, int limit);
+
+    List<OrderSummary> getOrdersByStatus(String status, Long after, int limit);
 
-    List<Order> getOrdersByStatus(String status);
+    /**
+     * 生成订单号；异步下单在入队前生成，创建订单时沿用
+     */
+    String generateOrderNo();
 
     Order createOrder(Order order, List<OrderItem> items);
 
@@ -23,5 +42,5 @@ public interface OrderService {
 
     void cancelOrder(Long id);
 
-    List<OrderItem> getOrderItemsByOrderId(Long orderId);
+    List<OrderItemView> getOrderItemsByOrderId(Long orderId);
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CategorySalesStats;
+import com.example.demo.dto.DailyOrderStats;
+import com.example.demo.dto.OrderStatsSummary;
+import com.example.demo.dto.OrderStatusStats;
+import com.example.demo.dto.ProductSalesStats;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 订单统计：下单和订单状态变化时在同一事务中更新汇总表，查询只读汇总表，与订单量无关
+ */
+public interface OrderStatsService {
+
+    /**
+     * 必须在创建订单的事务中调用，订单已保存（有id）
+     */
+    void orderCreated(Order order, List<OrderItem> items);
+
+    /**
+     * 必须在修改订单状态的事务中调用；只有进入或离开CANCELLED时才需要订单项
+     */
+    void orderStatusChanged(Order order, String previousStatus, Supplier<List<OrderItem>> items);
+
+    OrderStatsSummary getSummary();
+
+    List<OrderStatusStats> getStatusStats();
+
+    /**
+     * from到to（含）每天一条，没有订单的日期数量为0
+     */
+    List<DailyOrderStats> getDailyStats(LocalDate from, LocalDate to);
+
+    /**
+     * sort为revenue（销售额）或quantity（销量）
+     */
+    List<ProductSalesStats> getTopProducts(int limit, String sort);
+
+    List<CategorySalesStats> getCategoryStats();
+}
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+
+import java.util.List;
+
+public interface ProductSearchService {
+
+    /**
+     * 按相关度返回匹配商品的id，最后一个词按前缀匹配
+     */
+    List<Long> search(String keyword, int limit);
+
+    void index(Product product);
+
+    void remove(Long productId);
+
+    void rebuild();
+}
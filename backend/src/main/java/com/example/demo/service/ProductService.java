@@ -3,18 +3,23 @@ package com.example.demo.service;
 import com.example.demo.model.Product;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
-    List<Product> getAllProducts();
+    List<Product> getProducts(Long after, int limit);
+
+    void streamAllProducts(Consumer<Product> consumer);
+
+    long countProducts();
 
     Optional<Product> getProductById(Long id);
 
-    List<Product> getProductsByCategory(String category);
+    List<Product> getProductsByCategory(String category, Long after, int limit);
 
-    List<Product> getActiveProducts();
+    List<Product> getActiveProducts(Long after, int limit);
 
-    List<Product> searchProducts(String keyword);
+    List<Product> searchProducts(String keyword, int limit);
 
     Product saveProduct(Product product);
 
@@ -0,0 +1,28 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductSuggestion;
+import com.example.demo.model.Product;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductSuggestService {
+
+    int MAX_SUGGESTIONS = 10;
+
+    /**
+     * 返回名称或分类以prefix开头的联想结果，按库存从高到低
+     */
+    List<ProductSuggestion> suggest(String prefix, int limit);
+
+    void index(Product product);
+
+    void remove(Long productId);
+
+    /**
+     * 按商品id到最新库存重新排名，只影响已在索引中的商品
+     */
+    void updateStock(Map<Long, Integer> stocks);
+
+    void rebuild();
+}
@@ -0,0 +1,26 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderItemView;
+import com.example.demo.dto.OrderSummary;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * OrderService读操作的非阻塞版本，与阻塞读路径共用缓存
+ */
+public interface ReactiveOrderService {
+
+    Mono<List<OrderSummary>> getOrders(Long after, int limit);
+
+    Mono<OrderDetail> getOrderDetail(Long id);
+
+    Mono<OrderDetail> getOrderDetailByOrderNo(String orderNo);
+
+    Mono<List<OrderSummary>> getOrdersByUserId(Long userId, Long before, int limit);
+
+    Mono<List<OrderSummary>> getOrdersByStatus(String status, Long after, int limit);
+
+    Mono<List<OrderItemView>> getOrderItemsByOrderId(Long orderId);
+}
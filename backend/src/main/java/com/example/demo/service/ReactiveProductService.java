@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ProductService读操作的非阻塞版本，与阻塞读路径共用缓存
+ */
+public interface ReactiveProductService {
+
+    Mono<List<Product>> getProducts(Long after, int limit);
+
+    Mono<Product> getProductById(Long id);
+
+    Mono<List<Product>> getProductsByCategory(String category, Long after, int limit);
+
+    Mono<List<Product>> getActiveProducts(Long after, int limit);
+}
@@ -0,0 +1,11 @@
+package com.example.demo.service;
+
+import com.example.demo.model.OrderItem;
+import java.util.List;
+
+public interface StockReservationService {
+
+    void reserve(List<OrderItem> items);
+
+    void release(List<OrderItem> items);
+}
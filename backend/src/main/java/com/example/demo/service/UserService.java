@@ -3,10 +3,15 @@ package com.example.demo.service;
 import com.example.demo.model.User;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
 
-    List<User> getAllUsers();
+    List<User> getUsers(Long after, int limit);
+
+    void streamAllUsers(Consumer<User> consumer);
+
+    long countUsers();
 
     Optional<User> getUserById(Long id);
 
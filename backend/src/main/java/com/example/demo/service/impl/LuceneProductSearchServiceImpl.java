@@ -0,0 +1,266 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ProductSearchService;
+import com.example.demo.util.PageUtil;
+import com.example.demo.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 进程内Lucene倒排索引：启动时全量构建，商品写入提交后增量更新。
+ * CJKAnalyzer对中日韩文本做二元切分，其他文本按词切分
+ */
+@Service
+public class LuceneProductSearchServiceImpl implements ProductSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LuceneProductSearchServiceImpl.class);
+
+    private static final String FIELD_ID = "id";
+
+    /**
+     * 各字段的相关度权重，名称命中优先于分类和描述
+     */
+    private static final Map<String, Float> FIELD_BOOSTS = new LinkedHashMap<>();
+
+    static {
+        FIELD_BOOSTS.put("name", 3.0f);
+        FIELD_BOOSTS.put("category", 2.0f);
+        FIELD_BOOSTS.put("description", 1.0f);
+    }
+
+    /**
+     * 前缀匹配相对完整词匹配的权重
+     */
+    private static final float PREFIX_BOOST = 0.5f;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 索引目录，为空时索引只保存在内存中
+     */
+    @Value("${search.product.index-dir:}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        // 每次启动都从数据库全量重建
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @Override
+    public List<Long> search(String keyword, int limit) {
+        Query query = buildQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] hits = searcher.search(query, limit).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>(hits.length);
+                for (ScoreDoc hit : hits) {
+                    ids.add(Long.valueOf(storedFields.document(hit.doc, Set.of(FIELD_ID)).get(FIELD_ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void index(Product product) {
+        afterCommit(() -> {
+            writer.updateDocument(idTerm(product.getId()), toDocument(product));
+            searcherManager.maybeRefresh();
+        });
+    }
+
+    @Override
+    public void remove(Long productId) {
+        afterCommit(() -> {
+            writer.deleteDocuments(idTerm(productId));
+            searcherManager.maybeRefresh();
+        });
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Integer count = readOnly.execute(status -> PageUtil.forEachDetached(productRepository.streamAll(), entityManager,
+                product -> {
+                    try {
+                        writer.updateDocument(idTerm(product.getId()), toDocument(product));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("商品搜索索引构建完成，商品数: {}，耗时: {}ms", count, System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * 关键字切分后每个词都必须在某个字段中出现，最后一个词同时按前缀匹配以支持边输入边搜索
+     */
+    private Query buildQuery(String keyword) {
+        List<String> terms = analyze(keyword);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean last = i == terms.size() - 1;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+                Term fieldTerm = new Term(field.getKey(), term);
+                anyField.add(new BoostQuery(new TermQuery(fieldTerm), field.getValue()), BooleanClause.Occur.SHOULD);
+                if (last) {
+                    anyField.add(new BoostQuery(new PrefixQuery(fieldTerm), field.getValue() * PREFIX_BOOST),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream("name", text)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static Document toDocument(Product product) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, String.valueOf(product.getId()), Field.Store.YES));
+        addText(document, "name", product.getName());
+        addText(document, "category", product.getCategory());
+        addText(document, "description", product.getDescription());
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(FIELD_ID, String.valueOf(id));
+    }
+
+    /**
+     * 写入失败只记录日志，下次重启全量重建时修正
+     */
+    private static void afterCommit(IndexAction action) {
+        Runnable task = () -> {
+            try {
+                action.run();
+            } catch (IOException e) {
+                logger.error("更新商品搜索索引失败", e);
+            }
+        };
+        TransactionUtil.afterCommit(task);
+    }
+
+    @FunctionalInterface
+    private interface IndexAction {
+        void run() throws IOException;
+    }
+}
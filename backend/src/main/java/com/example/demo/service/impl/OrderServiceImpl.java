@@ -1,27 +1,43 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CacheInvalidator;
+import com.example.demo.config.Master;
+import com.example.demo.config.ReadOnly;
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderItemView;
+import com.example.demo.dto.OrderSummary;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
-import com.example.demo.model.Product;
 import com.example.demo.repository.OrderItemRepository;
 import com.example.demo.repository.OrderRepository;
-import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.OrderNoGenerator;
 import com.example.demo.service.OrderService;
+import com.example.demo.service.OrderStatsService;
+import com.example.demo.service.StockReservationService;
+import com.example.demo.util.PageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    /**
+     * 订单详情按id和订单号各缓存一份，两份都带订单标签，状态变化时一起失效
+     */
+    private static final String ORDER_DETAIL_CACHE = "orderDetail";
+
+    private static final String ORDER_DETAIL_BY_NO_CACHE = "orderDetailByNo";
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -29,88 +45,121 @@ public class OrderServiceImpl implements OrderService {
     private OrderItemRepository orderItemRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private OrderNoGenerator orderNoGenerator;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
 
     @Override
-    @Cacheable(value = "orders")
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    @ReadOnly
+    @Cacheable(value = "orders", key = "#after + ':' + #limit", sync = true)
+    public List<OrderSummary> getOrders(Long after, int limit) {
+        return orderRepository.findSummariesAfter(after, PageUtil.firstPage(limit));
     }
 
     @Override
-    @Cacheable(value = "order", key = "#id")
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+    @ReadOnly
+    public void streamAllOrders(Consumer<OrderSummary> consumer) {
+        // 投影结果不进入持久化上下文，无需定期清空
+        try (Stream<OrderSummary> stream = orderRepository.streamAllSummaries()) {
+            stream.forEach(consumer);
+        }
     }
 
     @Override
+    @ReadOnly
+    @Cacheable(value = ORDER_DETAIL_CACHE, key = "#id", sync = true)
+    public Optional<OrderDetail> getOrderDetail(Long id) {
+        Optional<OrderDetail> detail = toDetail(orderRepository.findDetailRowsById(id));
+        detail.ifPresent(d -> putCache(ORDER_DETAIL_BY_NO_CACHE, d.getOrder().getOrderNo(), d));
+        return detail;
+    }
+
+    @Override
+    @ReadOnly
+    @Cacheable(value = ORDER_DETAIL_BY_NO_CACHE, key = "#orderNo", sync = true)
+    public Optional<OrderDetail> getOrderDetailByOrderNo(String orderNo) {
+        Optional<OrderDetail> detail = toDetail(orderRepository.findDetailRowsByOrderNo(orderNo));
+        detail.ifPresent(d -> putCache(ORDER_DETAIL_CACHE, d.getOrder().getId(), d));
+        return detail;
+    }
+
+    @Override
+    @ReadOnly
     public Optional<Order> getOrderByOrderNo(String orderNo) {
         return orderRepository.findByOrderNo(orderNo);
     }
 
     @Override
-    @Cacheable(value = "userOrders", key = "#userId")
-    public List<Order> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @ReadOnly
+    @Cacheable(value = "userOrders", key = "#userId + ':' + #before + ':' + #limit", sync = true)
+    public List<OrderSummary> getOrdersByUserId(Long userId, Long before, int limit) {
+        return orderRepository.findSummariesByUserId(userId, before, PageUtil.firstPage(limit));
     }
 
     @Override
-    @Cacheable(value = "ordersByStatus", key = "#status")
-    public List<Order> getOrdersByStatus(String status) {
-        return orderRepository.findByStatus(status);
+    @ReadOnly
+    @Cacheable(value = "ordersByStatus", key = "#status + ':' + #after + ':' + #limit", sync = true)
+    public List<OrderSummary> getOrdersByStatus(String status, Long after, int limit) {
+        return orderRepository.findSummariesByStatus(status, after, PageUtil.firstPage(limit));
     }
 
     @Override
-    @Transactional
-    @CacheEvict(value = {"orders", "userOrders", "ordersByStatus"}, allEntries = true)
+    @Master
     public Order createOrder(Order order, List<OrderItem> items) {
-        // 生成订单号
-        String orderNo = generateOrderNo();
-        order.setOrderNo(orderNo);
+        // 生成订单号，异步下单时已预先分配
+        if (order.getOrderNo() == null) {
+            order.setOrderNo(generateOrderNo());
+        }
         order.setStatus("PENDING");
         order.setCreatedAt(new Date());
         order.setUpdatedAt(new Date());
 
+        // 按主键顺序锁定并批量扣减库存
+        stockReservationService.reserve(items);
+
         // 保存订单
         Order savedOrder = orderRepository.save(order);
 
-        // 保存订单项并更新库存
+        // 批量保存订单项
         for (OrderItem item : items) {
             item.setOrder(savedOrder);
-            
-            // 检查库存
-            Product product = productRepository.findById(item.getProduct().getId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
-            
-            if (product.getStock() < item.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
-            }
-            
-            // 更新库存
-            product.setStock(product.getStock() - item.getQuantity());
-            productRepository.save(product);
-            
-            orderItemRepository.save(item);
         }
+        orderItemRepository.saveAllInBatch(savedOrder, items);
+        orderStatsService.orderCreated(savedOrder, items);
 
+        cacheInvalidator.orderCreated(savedOrder);
         return savedOrder;
     }
 
     @Override
-    @CachePut(value = "order", key = "#id")
+    @Master
     public Order updateOrderStatus(Long id, String status) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
+        String previousStatus = order.getStatus();
         order.setStatus(status);
         order.setUpdatedAt(new Date());
         
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        orderStatsService.orderStatusChanged(savedOrder, previousStatus,
+                () -> orderItemRepository.findByOrder(savedOrder));
+        cacheInvalidator.orderStatusChanged(savedOrder);
+        return savedOrder;
     }
 
     @Override
-    @Transactional
-    @CacheEvict(value = {"order", "orders", "userOrders", "ordersByStatus"}, key = "#id", allEntries = true)
+    @Master
     public void cancelOrder(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
@@ -120,26 +169,53 @@ public class OrderServiceImpl implements OrderService {
             order.setStatus("CANCELLED");
             order.setUpdatedAt(new Date());
             orderRepository.save(order);
+            cacheInvalidator.orderStatusChanged(order);
             
             // 恢复库存
             List<OrderItem> items = orderItemRepository.findByOrder(order);
-            for (OrderItem item : items) {
-                Product product = productRepository.findById(item.getProduct().getId()).get();
-                product.setStock(product.getStock() + item.getQuantity());
-                productRepository.save(product);
-            }
+            stockReservationService.release(items);
+
+            // 在释放库存（锁定商品行）之后更新统计
+            orderStatsService.orderStatusChanged(order, "PENDING", () -> items);
         } else {
             throw new RuntimeException("Only PENDING orders can be cancelled");
         }
     }
 
     @Override
-    @Cacheable(value = "orderItems", key = "#orderId")
-    public List<OrderItem> getOrderItemsByOrderId(Long orderId) {
-        return orderItemRepository.findByOrderId(orderId);
+    @ReadOnly
+    @Cacheable(value = "orderItems", key = "#orderId", sync = true)
+    public List<OrderItemView> getOrderItemsByOrderId(Long orderId) {
+        return orderItemRepository.findViewsByOrderId(orderId);
     }
 
-    private String generateOrderNo() {
-        return "ORD" + UUID.randomUUID().toString().replace("-", "").substring(0, 10).toUpperCase();
+    @Override
+    public String generateOrderNo() {
+        return orderNoGenerator.nextOrderNo();
+    }
+
+    /**
+     * 把[Order, OrderItem]结果行组装为订单详情；订单项只读取外键id，不会触发延迟加载
+     */
+    private static Optional<OrderDetail> toDetail(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = (Order) rows.get(0)[0];
+        List<OrderItemView> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[1] instanceof OrderItem item) {
+                items.add(new OrderItemView(item.getId(), order.getId(), item.getProduct().getId(),
+                        item.getProductName(), item.getQuantity(), item.getPrice(), item.getSubtotal()));
+            }
+        }
+        return Optional.of(new OrderDetail(order, items));
+    }
+
+    private void putCache(String cacheName, Object key, OrderDetail detail) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.put(key, detail);
+        }
     }
-}
\ No newline at end of file
+}
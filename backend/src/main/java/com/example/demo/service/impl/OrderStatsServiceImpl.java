@@ -0,0 +1,215 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.config.ReadOnly;
+import com.example.demo.dto.CategorySalesStats;
+import com.example.demo.dto.DailyOrderStats;
+import com.example.demo.dto.OrderStatsSummary;
+import com.example.demo.dto.OrderStatusStats;
+import com.example.demo.dto.ProductSalesStats;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.repository.OrderStatsRepository;
+import com.example.demo.service.OrderStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 汇总表的增量维护。每个订单固定写入第(id % slots)个slot，同一统计键的并发更新分散到不同行；
+ * 一个事务内按 状态 -> 日期 -> 商品id -> 分类 的顺序加锁，各事务加锁顺序一致，不会互相死锁。
+ * 下单时商品行已被库存预占锁定，取消订单时在释放库存之后调用，保证先锁商品行、后锁汇总行
+ */
+@Service
+public class OrderStatsServiceImpl implements OrderStatsService {
+
+    private static final String CANCELLED = "CANCELLED";
+
+    private static final int MAX_DAYS = 366;
+
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    @Value("${stats.rollup.slots:8}")
+    private int slots;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order, List<OrderItem> items) {
+        int slot = slotOf(order);
+        BigDecimal amount = amountOf(order);
+        boolean sale = isSale(order.getStatus());
+        orderStatsRepository.addStatus(slot, order.getStatus(), 1, amount);
+        orderStatsRepository.addDaily(slot, dateOf(order), 1, sale ? amount : BigDecimal.ZERO, sale ? 0 : 1);
+        if (sale) {
+            addSales(slot, items, 1);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(Order order, String previousStatus, Supplier<List<OrderItem>> items) {
+        String status = order.getStatus();
+        if (Objects.equals(previousStatus, status)) {
+            return;
+        }
+        int slot = slotOf(order);
+        BigDecimal amount = amountOf(order);
+        // 两个状态行按名称顺序更新，相反方向的状态变化不会交叉加锁
+        TreeMap<String, Integer> statusDeltas = new TreeMap<>();
+        if (previousStatus != null) {
+            statusDeltas.put(previousStatus, -1);
+        }
+        statusDeltas.put(status, 1);
+        statusDeltas.forEach((s, delta) ->
+                orderStatsRepository.addStatus(slot, s, delta, delta > 0 ? amount : amount.negate()));
+
+        boolean wasSale = isSale(previousStatus);
+        boolean sale = isSale(status);
+        if (wasSale != sale) {
+            int sign = sale ? 1 : -1;
+            orderStatsRepository.addDaily(slot, dateOf(order), 0, sale ? amount : amount.negate(), -sign);
+            addSales(slot, items.get(), sign);
+        }
+    }
+
+    @Override
+    @ReadOnly
+    public OrderStatsSummary getSummary() {
+        List<OrderStatusStats> statuses = orderStatsRepository.findStatusStats();
+        long orderCount = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (OrderStatusStats stats : statuses) {
+            orderCount += stats.getOrderCount();
+            if (isSale(stats.getStatus())) {
+                revenue = revenue.add(stats.getTotalAmount());
+            }
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        DailyOrderStats todayStats = orderStatsRepository.findDailyStats(today, today).stream()
+                .findFirst()
+                .orElseGet(() -> emptyDay(today));
+        return new OrderStatsSummary(orderCount, revenue, todayStats.getOrderCount(), todayStats.getRevenue(),
+                statuses);
+    }
+
+    @Override
+    @ReadOnly
+    public List<OrderStatusStats> getStatusStats() {
+        return orderStatsRepository.findStatusStats();
+    }
+
+    @Override
+    @ReadOnly
+    public List<DailyOrderStats> getDailyStats(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new BadRequestException("date range must not exceed " + MAX_DAYS + " days");
+        }
+        Map<LocalDate, DailyOrderStats> byDate = orderStatsRepository.findDailyStats(from, to).stream()
+                .collect(Collectors.toMap(DailyOrderStats::getDate, Function.identity()));
+        List<DailyOrderStats> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DailyOrderStats stats = byDate.get(date);
+            days.add(stats != null ? stats : emptyDay(date));
+        }
+        return days;
+    }
+
+    @Override
+    @ReadOnly
+    public List<ProductSalesStats> getTopProducts(int limit, String sort) {
+        if (!"revenue".equals(sort) && !"quantity".equals(sort)) {
+            throw new BadRequestException("sort must be revenue or quantity");
+        }
+        return orderStatsRepository.findTopProducts(sort, Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS)));
+    }
+
+    @Override
+    @ReadOnly
+    public List<CategorySalesStats> getCategoryStats() {
+        return orderStatsRepository.findCategoryStats();
+    }
+
+    /**
+     * 按商品和分类合并订单项后写入，同一订单中同一商品的多行只计一个订单
+     */
+    private void addSales(int slot, List<OrderItem> items, int sign) {
+        TreeMap<Long, ProductSalesStats> products = new TreeMap<>();
+        for (OrderItem item : items) {
+            Long productId = item.getProduct().getId();
+            ProductSalesStats delta = products.computeIfAbsent(productId,
+                    id -> new ProductSalesStats(id, item.getProductName(), 0, BigDecimal.ZERO, sign));
+            delta.setQuantity(delta.getQuantity() + (long) sign * quantityOf(item));
+            delta.setRevenue(delta.getRevenue().add(sign > 0 ? subtotalOf(item) : subtotalOf(item).negate()));
+        }
+        orderStatsRepository.addProductSales(slot, products.values());
+
+        Map<Long, String> categories = orderStatsRepository.findCategories(products.keySet());
+        TreeMap<String, CategorySalesStats> categoryDeltas = new TreeMap<>();
+        for (ProductSalesStats product : products.values()) {
+            String category = categories.get(product.getProductId());
+            if (category == null) {
+                continue;
+            }
+            CategorySalesStats delta = categoryDeltas.computeIfAbsent(category,
+                    c -> new CategorySalesStats(c, 0, BigDecimal.ZERO, sign));
+            delta.setQuantity(delta.getQuantity() + product.getQuantity());
+            delta.setRevenue(delta.getRevenue().add(product.getRevenue()));
+        }
+        orderStatsRepository.addCategorySales(slot, categoryDeltas.values());
+    }
+
+    private int slotOf(Order order) {
+        return (int) Math.floorMod(order.getId(), (long) Math.max(1, slots));
+    }
+
+    /**
+     * 下单日期按UTC计算，与回填迁移一致
+     */
+    private static LocalDate dateOf(Order order) {
+        Instant createdAt = order.getCreatedAt() != null ? Instant.ofEpochMilli(order.getCreatedAt().getTime())
+                : Instant.now();
+        return LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+    }
+
+    private static boolean isSale(String status) {
+        return status != null && !CANCELLED.equals(status);
+    }
+
+    private static BigDecimal amountOf(Order order) {
+        return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    private static long quantityOf(OrderItem item) {
+        return item.getQuantity() != null ? item.getQuantity() : 0;
+    }
+
+    private static BigDecimal subtotalOf(OrderItem item) {
+        return item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO;
+    }
+
+    private static DailyOrderStats emptyDay(LocalDate date) {
+        return new DailyOrderStats(date, 0, BigDecimal.ZERO, 0);
+    }
+}
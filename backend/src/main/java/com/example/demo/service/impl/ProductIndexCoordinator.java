@@ -0,0 +1,143 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ProductSearchService;
+import com.example.demo.service.ProductSuggestService;
+import com.example.demo.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 商品搜索索引和联想索引都在进程内，每个实例各有一份：写入商品的实例在提交后更新本地索引，
+ * 同时通过Redis发布订阅通知其他实例，其他实例按商品id从主库重新读取后更新自己的索引。
+ * 下单、取消订单和热点库存回写只改变库存，只通知联想索引按新库存重新排名，消息中直接带库存，不再回查数据库。
+ * 消息格式：第一行为发送实例id，第二行为"index:商品id"、"remove:商品id"或"stock:商品id=库存,..."。
+ * 通知丢失（例如订阅连接断开期间）的实例在下次重启全量重建前保持旧的索引；
+ * 不同实例发出的库存消息到达顺序不保证，联想排名可能短暂使用较旧的库存，直到该商品下一次库存变化
+ */
+@Component
+public class ProductIndexCoordinator implements MessageListener {
+
+    public static final String CHANNEL = "product:index";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexCoordinator.class);
+
+    private static final String INDEX = "index:";
+
+    private static final String REMOVE = "remove:";
+
+    private static final String STOCK = "stock:";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductSuggestService productSuggestService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    public void productChanged(Product product) {
+        productSearchService.index(product);
+        productSuggestService.index(product);
+        Long productId = product.getId();
+        TransactionUtil.afterCommit(() -> send(INDEX + productId));
+    }
+
+    public void productDeleted(Long productId) {
+        productSearchService.remove(productId);
+        productSuggestService.remove(productId);
+        TransactionUtil.afterCommit(() -> send(REMOVE + productId));
+    }
+
+    /**
+     * @param stocks 商品id到变化后的库存，在持有行锁或计数器原子操作后得到
+     */
+    public void stockChanged(Map<Long, Integer> stocks) {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        productSuggestService.updateStock(stocks);
+        String body = STOCK + stocks.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+        TransactionUtil.afterCommit(() -> send(body));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] lines = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        if (lines.length < 2 || nodeId.equals(lines[0])) {
+            return;
+        }
+        try {
+            if (lines[1].startsWith(INDEX)) {
+                reindex(Long.valueOf(lines[1].substring(INDEX.length())));
+            } else if (lines[1].startsWith(REMOVE)) {
+                Long productId = Long.valueOf(lines[1].substring(REMOVE.length()));
+                productSearchService.remove(productId);
+                productSuggestService.remove(productId);
+            } else if (lines[1].startsWith(STOCK)) {
+                productSuggestService.updateStock(parseStocks(lines[1].substring(STOCK.length())));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("同步商品索引失败: {}", lines[1], e);
+        }
+    }
+
+    /**
+     * 消息只带商品id，在写事务中读取使连接路由到主库，避免从库延迟读到提交前的数据
+     */
+    private void reindex(Long productId) {
+        Product product = new TransactionTemplate(transactionManager).execute(status ->
+                productRepository.findById(productId).orElse(null));
+        if (product == null) {
+            productSearchService.remove(productId);
+            productSuggestService.remove(productId);
+            return;
+        }
+        productSearchService.index(product);
+        productSuggestService.index(product);
+    }
+
+    private static Map<Long, Integer> parseStocks(String body) {
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (String pair : body.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                stocks.put(Long.valueOf(pair.substring(0, separator)), Integer.valueOf(pair.substring(separator + 1)));
+            }
+        }
+        return stocks;
+    }
+
+    private void send(String body) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "\n" + body);
+        } catch (RuntimeException e) {
+            logger.warn("发布商品索引更新消息失败: {}", body, e);
+        }
+    }
+}
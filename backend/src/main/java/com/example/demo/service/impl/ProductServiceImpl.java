@@ -1,76 +1,155 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CacheInvalidator;
+import com.example.demo.config.Master;
+import com.example.demo.config.ReadOnly;
 import com.example.demo.model.Product;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.HotStockService;
+import com.example.demo.service.ProductSearchService;
 import com.example.demo.service.ProductService;
+import com.example.demo.util.PageUtil;
+import com.example.demo.util.TransactionUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired(required = false)
+    private HotStockService hotStockService;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductIndexCoordinator productIndexCoordinator;
+
+    @Override
+    @ReadOnly
+    @Cacheable(value = "products", key = "#after + ':' + #limit", sync = true)
+    public List<Product> getProducts(Long after, int limit) {
+        return productRepository.findByIdGreaterThanOrderByIdAsc(after, PageUtil.firstPage(limit));
+    }
+
     @Override
-    @Cacheable(value = "products")
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    @ReadOnly
+    public void streamAllProducts(Consumer<Product> consumer) {
+        PageUtil.forEachDetached(productRepository.streamAll(), entityManager, consumer);
     }
 
     @Override
-    @Cacheable(value = "product", key = "#id")
+    @ReadOnly
+    public long countProducts() {
+        return productRepository.count();
+    }
+
+    @Override
+    @ReadOnly
+    @Cacheable(value = "product", key = "#id", sync = true)
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
     @Override
-    @Cacheable(value = "productsByCategory", key = "#category")
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+    @ReadOnly
+    @Cacheable(value = "productsByCategory", key = "#category + ':' + #after + ':' + #limit", sync = true)
+    public List<Product> getProductsByCategory(String category, Long after, int limit) {
+        return productRepository.findByCategoryAndIdGreaterThanOrderByIdAsc(category, after, PageUtil.firstPage(limit));
     }
 
     @Override
-    @Cacheable(value = "activeProducts")
-    public List<Product> getActiveProducts() {
-        return productRepository.findByStatusTrue();
+    @ReadOnly
+    @Cacheable(value = "activeProducts", key = "#after + ':' + #limit", sync = true)
+    public List<Product> getActiveProducts(Long after, int limit) {
+        return productRepository.findByStatusTrueAndIdGreaterThanOrderByIdAsc(after, PageUtil.firstPage(limit));
     }
 
     @Override
-    @Cacheable(value = "productsByKeyword", key = "#keyword")
-    public List<Product> searchProducts(String keyword) {
-        return productRepository.findByNameContainingIgnoreCase(keyword);
+    @ReadOnly
+    public List<Product> searchProducts(String keyword, int limit) {
+        List<Long> ids = productSearchService.search(keyword, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // 按主键批量加载，保持索引给出的相关度顺序
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        List<Product> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
     }
 
     @Override
+    @Master
     @CachePut(value = "product", key = "#product.id")
-    @CacheEvict(value = "products", allEntries = true)
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        boolean created = product.getId() == null;
+        Product savedProduct = productRepository.save(product);
+        resetHotStock(savedProduct.getId(), savedProduct.getStock());
+        cacheInvalidator.productChanged(savedProduct, created);
+        productIndexCoordinator.productChanged(savedProduct);
+        return savedProduct;
     }
 
     @Override
-    @CacheEvict(value = {"product", "products", "productsByCategory", "activeProducts", "productsByKeyword"}, key = "#id", allEntries = true)
+    @Master
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        cacheInvalidator.productDeleted(id);
+        productIndexCoordinator.productDeleted(id);
     }
 
     @Override
+    @Master
     @CachePut(value = "product", key = "#id")
-    @CacheEvict(value = {"products", "productsByCategory", "activeProducts", "productsByKeyword"}, allEntries = true)
     public Product updateProductStock(Long id, Integer stock) {
         Optional<Product> productOptional = productRepository.findById(id);
         if (productOptional.isPresent()) {
             Product product = productOptional.get();
             product.setStock(stock);
-            return productRepository.save(product);
+            Product savedProduct = productRepository.save(product);
+            resetHotStock(id, stock);
+            cacheInvalidator.productChanged(savedProduct, false);
+            productIndexCoordinator.productChanged(savedProduct);
+            return savedProduct;
         }
         return null;
     }
+
+    /**
+     * 热点商品以Redis计数器为准，人工写入库存时同步重置；提交后才重置，回滚时计数器和未回写的变化量保持不变
+     */
+    private void resetHotStock(Long id, Integer stock) {
+        if (hotStockService != null && stock != null && hotStockService.isHot(id)) {
+            TransactionUtil.afterCommit(() -> hotStockService.resetStock(id, stock));
+        }
+    }
 }
\ No newline at end of file
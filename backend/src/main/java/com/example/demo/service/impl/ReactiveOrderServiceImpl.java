@@ -0,0 +1,64 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.ReactiveTaggedCache;
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderItemView;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.repository.ReactiveOrderRepository;
+import com.example.demo.service.ReactiveOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 缓存名和键与OrderServiceImpl的@Cacheable一致
+ */
+@Service
+public class ReactiveOrderServiceImpl implements ReactiveOrderService {
+
+    @Autowired
+    private ReactiveOrderRepository reactiveOrderRepository;
+
+    @Autowired
+    private ReactiveTaggedCache reactiveTaggedCache;
+
+    @Override
+    public Mono<List<OrderSummary>> getOrders(Long after, int limit) {
+        return reactiveTaggedCache.get("orders", after + ":" + limit,
+                () -> reactiveOrderRepository.findSummariesAfter(after, limit).collectList());
+    }
+
+    @Override
+    public Mono<OrderDetail> getOrderDetail(Long id) {
+        return reactiveTaggedCache.get("orderDetail", id, () -> reactiveOrderRepository.findDetailById(id)
+                .flatMap(detail -> reactiveTaggedCache.put("orderDetailByNo", detail.getOrder().getOrderNo(), detail)
+                        .thenReturn(detail)));
+    }
+
+    @Override
+    public Mono<OrderDetail> getOrderDetailByOrderNo(String orderNo) {
+        return reactiveTaggedCache.get("orderDetailByNo", orderNo, () -> reactiveOrderRepository.findDetailByOrderNo(orderNo)
+                .flatMap(detail -> reactiveTaggedCache.put("orderDetail", detail.getOrder().getId(), detail)
+                        .thenReturn(detail)));
+    }
+
+    @Override
+    public Mono<List<OrderSummary>> getOrdersByUserId(Long userId, Long before, int limit) {
+        return reactiveTaggedCache.get("userOrders", userId + ":" + before + ":" + limit,
+                () -> reactiveOrderRepository.findSummariesByUserId(userId, before, limit).collectList());
+    }
+
+    @Override
+    public Mono<List<OrderSummary>> getOrdersByStatus(String status, Long after, int limit) {
+        return reactiveTaggedCache.get("ordersByStatus", status + ":" + after + ":" + limit,
+                () -> reactiveOrderRepository.findSummariesByStatus(status, after, limit).collectList());
+    }
+
+    @Override
+    public Mono<List<OrderItemView>> getOrderItemsByOrderId(Long orderId) {
+        return reactiveTaggedCache.get("orderItems", orderId,
+                () -> reactiveOrderRepository.findViewsByOrderId(orderId).collectList());
+    }
+}
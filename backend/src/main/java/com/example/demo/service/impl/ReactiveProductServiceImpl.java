@@ -0,0 +1,47 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.ReactiveTaggedCache;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ReactiveProductRepository;
+import com.example.demo.service.ReactiveProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 缓存名和键与ProductServiceImpl的@Cacheable一致
+ */
+@Service
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    @Autowired
+    private ReactiveProductRepository reactiveProductRepository;
+
+    @Autowired
+    private ReactiveTaggedCache reactiveTaggedCache;
+
+    @Override
+    public Mono<List<Product>> getProducts(Long after, int limit) {
+        return reactiveTaggedCache.get("products", after + ":" + limit,
+                () -> reactiveProductRepository.findByIdGreaterThan(after, limit).collectList());
+    }
+
+    @Override
+    public Mono<Product> getProductById(Long id) {
+        return reactiveTaggedCache.get("product", id, () -> reactiveProductRepository.findById(id));
+    }
+
+    @Override
+    public Mono<List<Product>> getProductsByCategory(String category, Long after, int limit) {
+        return reactiveTaggedCache.get("productsByCategory", category + ":" + after + ":" + limit,
+                () -> reactiveProductRepository.findByCategory(category, after, limit).collectList());
+    }
+
+    @Override
+    public Mono<List<Product>> getActiveProducts(Long after, int limit) {
+        return reactiveTaggedCache.get("activeProducts", after + ":" + limit,
+                () -> reactiveProductRepository.findByStatusTrue(after, limit).collectList());
+    }
+}
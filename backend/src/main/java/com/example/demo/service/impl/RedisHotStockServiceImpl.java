@@ -0,0 +1,304 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.CacheInvalidator;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.HotStockService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 热点商品库存计数器：库存保存在Redis中，由Lua脚本原子扣减，
+ * 净变化量定期批量回写到products.stock。
+ * 计数器不存在时（Redis重启、主从切换或被淘汰）按数据库库存加上未回写的变化量补建后重试，不拒绝订单
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.hot.enabled", havingValue = "true")
+public class RedisHotStockServiceImpl implements HotStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisHotStockServiceImpl.class);
+
+    /**
+     * 所有键使用同一个hash tag，保证在Redis集群中落在同一个slot，脚本可以跨键执行
+     */
+    private static final String STOCK_KEY_PREFIX = "inventory:{hot}:stock:";
+    private static final String DELTA_KEY = "inventory:{hot}:delta";
+
+    /**
+     * KEYS[1..n]为库存键，KEYS[n+1]为待回写的变化量；ARGV[1..n]为商品id，ARGV[n+1..2n]为数量。
+     * 全部满足才扣减；返回0表示成功，i表示第i个库存不足，-i表示第i个计数器不存在
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(
+            "local n = #ARGV / 2 " +
+            "for i = 1, n do " +
+            "  local stock = redis.call('GET', KEYS[i]) " +
+            "  if not stock then return -i end " +
+            "  if tonumber(stock) < tonumber(ARGV[n + i]) then return i end " +
+            "end " +
+            "for i = 1, n do " +
+            "  redis.call('DECRBY', KEYS[i], ARGV[n + i]) " +
+            "  redis.call('HINCRBY', KEYS[n + 1], ARGV[i], -tonumber(ARGV[n + i])) " +
+            "end " +
+            "return 0", Long.class);
+
+    /**
+     * 参数同RESERVE_SCRIPT；全部计数器存在才回补，返回0表示成功，-i表示第i个计数器不存在
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "local n = #ARGV / 2 " +
+            "for i = 1, n do " +
+            "  if redis.call('EXISTS', KEYS[i]) == 0 then return -i end " +
+            "end " +
+            "for i = 1, n do " +
+            "  redis.call('INCRBY', KEYS[i], ARGV[n + i]) " +
+            "  redis.call('HINCRBY', KEYS[n + 1], ARGV[i], ARGV[n + i]) " +
+            "end " +
+            "return 0", Long.class);
+
+    private static final RedisScript<Long> RESET_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('SET', KEYS[1], ARGV[2]) " +
+            "redis.call('HDEL', KEYS[2], ARGV[1]) " +
+            "return 0", Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TAKE_DELTA_SCRIPT = new DefaultRedisScript<>(
+            "local delta = redis.call('HGETALL', KEYS[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return delta", List.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductIndexCoordinator productIndexCoordinator;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    private final Set<Long> hotProductIds;
+
+    public RedisHotStockServiceImpl(@Value("${inventory.hot.skus:}") List<Long> hotProductIds) {
+        this.hotProductIds = Collections.unmodifiableSet(new HashSet<>(hotProductIds));
+    }
+
+    @Override
+    public boolean isHot(Long productId) {
+        return hotProductIds.contains(productId);
+    }
+
+    @Override
+    public void reserve(Map<Long, Integer> quantities) {
+        Long result = executeSeeding(RESERVE_SCRIPT, quantities);
+        if (result != 0) {
+            Long productId = new ArrayList<>(quantities.keySet()).get((int) Math.abs(result) - 1);
+            if (result < 0) {
+                throw new BadRequestException("Product not found");
+            }
+            throw new BadRequestException("Insufficient stock for product: " + productId);
+        }
+
+        // 数据库事务回滚时归还已扣减的计数
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        doRelease(quantities);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantities) {
+        // 回补库存在事务提交后才生效，避免取消订单回滚后库存被多加
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doRelease(quantities);
+                }
+            });
+        } else {
+            doRelease(quantities);
+        }
+    }
+
+    @Override
+    public void resetStock(Long productId, Integer stock) {
+        stringRedisTemplate.execute(RESET_SCRIPT, List.of(STOCK_KEY_PREFIX + productId, DELTA_KEY),
+                productId.toString(), String.valueOf(stock));
+    }
+
+    /**
+     * 取出并清空待回写的变化量，按主键顺序在一个批次中写回数据库；写库失败时把变化量放回Redis
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.hot.flush-interval:1000}")
+    public void flush() {
+        @SuppressWarnings("unchecked")
+        List<Object> raw = stringRedisTemplate.execute(TAKE_DELTA_SCRIPT, List.of(DELTA_KEY));
+        if (raw == null || raw.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (int i = 0; i + 1 < raw.size(); i += 2) {
+            int delta = Integer.parseInt(raw.get(i + 1).toString());
+            if (delta != 0) {
+                deltas.put(Long.valueOf(raw.get(i).toString()), delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> productRepository.updateStockIncrement(deltas));
+            logger.debug("热点库存回写完成，商品数: {}", deltas.size());
+        } catch (RuntimeException e) {
+            deltas.forEach((id, delta) -> stringRedisTemplate.opsForHash().increment(DELTA_KEY, id.toString(), delta));
+            logger.warn("热点库存回写失败，变化量已放回Redis等待重试", e);
+            return;
+        }
+        productIndexCoordinator.stockChanged(currentStocks(deltas.keySet()));
+        cacheInvalidator.stockChanged(deltas.keySet());
+    }
+
+    /**
+     * 启动时先回写遗留的变化量，再用数据库库存初始化尚不存在的计数器
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        flush();
+        seedCounters(hotProductIds);
+        logger.info("热点库存计数器已就绪，商品数: {}", hotProductIds.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 热点商品的实时库存以计数器为准，回写后按计数器通知联想索引重新排名，每个回写周期最多通知一次
+     */
+    private Map<Long, Integer> currentStocks(Set<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<String> values = stringRedisTemplate.opsForValue()
+                .multiGet(idList.stream().map(id -> STOCK_KEY_PREFIX + id).toList());
+        Map<Long, Integer> stocks = new TreeMap<>();
+        for (int i = 0; values != null && i < idList.size(); i++) {
+            if (values.get(i) != null) {
+                stocks.put(idList.get(i), Integer.valueOf(values.get(i)));
+            }
+        }
+        return stocks;
+    }
+
+    private void doRelease(Map<Long, Integer> quantities) {
+        if (executeSeeding(RELEASE_SCRIPT, quantities) != 0) {
+            logger.warn("热点库存回补失败，商品不存在: {}", quantities);
+        }
+    }
+
+    /**
+     * 执行扣减或回补脚本；脚本返回-i（第i个计数器不存在）时补建该计数器后重试，
+     * 补建后仍不存在说明商品已被删除，原样返回
+     */
+    private long executeSeeding(RedisScript<Long> script, Map<Long, Integer> quantities) {
+        List<Long> ids = new ArrayList<>(quantities.keySet());
+        Set<Long> seeded = new HashSet<>();
+        while (true) {
+            Long result = stringRedisTemplate.execute(script, keys(ids), args(quantities));
+            if (result == null || result >= 0) {
+                return result == null ? 0 : result;
+            }
+            Long productId = ids.get((int) -result - 1);
+            if (!seeded.add(productId)) {
+                return result;
+            }
+            logger.warn("热点库存计数器不存在，按数据库库存补建: {}", productId);
+            seedCounters(List.of(productId));
+        }
+    }
+
+    /**
+     * 用数据库库存加上未回写的变化量初始化尚不存在的计数器，已存在的不覆盖。
+     * 先读变化量，再在新的读写事务中加锁读取库存（走主库，等待正在进行的回写提交）：
+     * 两次读取之间发生的回写会被计入两次，扣减为主的变化量为负，补建的库存只会偏少不会超卖
+     */
+    private void seedCounters(Collection<Long> ids) {
+        Map<Long, Integer> pending = new HashMap<>();
+        for (Long id : ids) {
+            Object delta = stringRedisTemplate.opsForHash().get(DELTA_KEY, id.toString());
+            if (delta != null) {
+                pending.put(id, Integer.valueOf(delta.toString()));
+            }
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Product> products = template.execute(status -> productRepository.lockStock(ids));
+        for (Product product : products) {
+            int stock = (product.getStock() == null ? 0 : product.getStock()) + pending.getOrDefault(product.getId(), 0);
+            stringRedisTemplate.opsForValue().setIfAbsent(STOCK_KEY_PREFIX + product.getId(), String.valueOf(stock));
+        }
+    }
+
+    private List<String> keys(List<Long> ids) {
+        List<String> keys = new ArrayList<>(ids.size() + 1);
+        for (Long id : ids) {
+            keys.add(STOCK_KEY_PREFIX + id);
+        }
+        keys.add(DELTA_KEY);
+        return keys;
+    }
+
+    private Object[] args(Map<Long, Integer> quantities) {
+        Object[] args = new Object[quantities.size() * 2];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            args[i] = entry.getKey().toString();
+            args[quantities.size() + i] = entry.getValue().toString();
+            i++;
+        }
+        return args;
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.AsyncOrderStatus;
+import com.example.demo.dto.OrderSubmission;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.Order;
+import com.example.demo.service.AsyncOrderService;
+import com.example.demo.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于Redis Stream的异步下单：请求线程只做校验和入队，消费者组中的多个线程批量创建订单。
+ * 同一批订单在一个事务中提交，失败时逐条重试，单条失败不影响其他订单。
+ * 只有业务上不可能成功的订单（库存不足、商品不存在、请求内容无效）标记为失败并确认；
+ * 数据库不可用、连接池超时、死锁等基础设施故障时消息留在待确认列表中，消费者退避后重新处理，
+ * 投递次数达到上限后才标记为失败
+ */
+@Service
+public class RedisStreamOrderServiceImpl implements AsyncOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisStreamOrderServiceImpl.class);
+
+    /**
+     * 所有键使用同一个hash tag，保证入队脚本在Redis集群中可以跨键执行
+     */
+    private static final String STREAM_KEY = "order-queue:{orders}:stream";
+    private static final String IDEMPOTENCY_KEY_PREFIX = "order-queue:{orders}:client:";
+    private static final String STATUS_KEY_PREFIX = "order-queue:{orders}:status:";
+
+    private static final String GROUP = "order-workers";
+
+    private static final String FIELD_ORDER_NO = "orderNo";
+    private static final String FIELD_PAYLOAD = "payload";
+
+    /**
+     * KEYS[1]为客户端幂等键，KEYS[2]为状态键，KEYS[3]为队列；ARGV为订单号、请求内容、状态保留秒数。
+     * 幂等键已存在时返回第一次提交的订单号，否则登记并入队，返回本次订单号
+     */
+    private static final RedisScript<String> SUBMIT_SCRIPT = new DefaultRedisScript<>(
+            "local existing = redis.call('GET', KEYS[1]) " +
+            "if existing then return existing end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[3]) " +
+            "redis.call('HSET', KEYS[2], 'status', 'QUEUED') " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "redis.call('XADD', KEYS[3], '*', 'orderNo', ARGV[1], 'payload', ARGV[2]) " +
+            "return ARGV[1]", String.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${order.async.consumers:2}")
+    private int consumers;
+
+    @Value("${order.async.batch-size:50}")
+    private int batchSize;
+
+    @Value("${order.async.block-timeout:2000}")
+    private long blockTimeout;
+
+    @Value("${order.async.status-ttl:86400}")
+    private long statusTtlSeconds;
+
+    @Value("${order.async.reclaim-idle:60000}")
+    private long reclaimIdle;
+
+    /**
+     * 基础设施故障时同一条消息最多投递的次数（XPENDING中的投递计数）
+     */
+    @Value("${order.async.max-deliveries:10}")
+    private long maxDeliveries;
+
+    /**
+     * 基础设施故障后重新处理待确认消息前的等待时间，连续失败时加倍，不超过retry-backoff-max
+     */
+    @Value("${order.async.retry-backoff:1000}")
+    private long retryBackoff;
+
+    @Value("${order.async.retry-backoff-max:30000}")
+    private long retryBackoffMax;
+
+    private final String consumerPrefix = resolveConsumerPrefix();
+
+    private volatile boolean running;
+
+    private ExecutorService executor;
+
+    @Override
+    public AsyncOrderStatus submit(String clientKey, OrderSubmission submission) {
+        submission.validate();
+        String orderNo = orderService.generateOrderNo();
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(submission);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize order submission", e);
+        }
+        String acceptedOrderNo = stringRedisTemplate.execute(SUBMIT_SCRIPT,
+                List.of(IDEMPOTENCY_KEY_PREFIX + clientKey, STATUS_KEY_PREFIX + orderNo, STREAM_KEY),
+                orderNo, payload, String.valueOf(statusTtlSeconds));
+        if (orderNo.equals(acceptedOrderNo)) {
+            return new AsyncOrderStatus(orderNo, AsyncOrderStatus.QUEUED, null, null);
+        }
+        // 重复提交，返回第一次提交的订单
+        return getStatus(acceptedOrderNo)
+                .orElse(new AsyncOrderStatus(acceptedOrderNo, AsyncOrderStatus.QUEUED, null, null));
+    }
+
+    @Override
+    public Optional<AsyncOrderStatus> getStatus(String orderNo) {
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(STATUS_KEY_PREFIX + orderNo);
+        if (!fields.isEmpty()) {
+            Object orderId = fields.get("orderId");
+            return Optional.of(new AsyncOrderStatus(orderNo, (String) fields.get("status"),
+                    orderId == null ? null : Long.valueOf(orderId.toString()), (String) fields.get("message")));
+        }
+        // 状态已过期或是同步创建的订单
+        return orderService.getOrderByOrderNo(orderNo)
+                .map(order -> new AsyncOrderStatus(orderNo, AsyncOrderStatus.CREATED, order.getId(), null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        createGroup();
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(consumers, runnable -> {
+            Thread thread = new Thread(runnable, "order-consumer-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < consumers; i++) {
+            String name = consumerPrefix + "-" + i;
+            executor.submit(() -> consume(name));
+        }
+        logger.info("异步下单消费者已启动，数量: {}", consumers);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(blockTimeout * 2, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 先处理本消费者上次未确认的消息，再阻塞读取新消息；有消息需要重试时退避后重新处理待确认消息
+     */
+    private void consume(String name) {
+        Consumer consumer = Consumer.from(GROUP, name);
+        boolean pending = true;
+        int failures = 0;
+        while (running) {
+            try {
+                List<MapRecord<String, Object, Object>> records;
+                if (pending) {
+                    records = read(consumer, StreamReadOptions.empty().count(batchSize), ReadOffset.from("0"));
+                    if (records == null || records.isEmpty()) {
+                        pending = false;
+                        continue;
+                    }
+                } else {
+                    records = read(consumer, StreamReadOptions.empty().count(batchSize).block(Duration.ofMillis(blockTimeout)),
+                            ReadOffset.lastConsumed());
+                }
+                if (records != null && !records.isEmpty()) {
+                    if (process(records)) {
+                        failures++;
+                        pending = true;
+                        sleep(Math.min(retryBackoff << Math.min(failures - 1, 16), retryBackoffMax));
+                    } else {
+                        failures = 0;
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.error("异步下单消费失败，消费者: {}", name, e);
+                sleep(1000);
+            }
+        }
+    }
+
+    /**
+     * 接管其他消费者长时间未确认的消息，例如实例重启后主机名变化留下的消息
+     */
+    @Scheduled(fixedDelayString = "${order.async.reclaim-interval:30000}")
+    public void reclaim() {
+        if (!running) {
+            return;
+        }
+        PendingMessages pendingMessages = stringRedisTemplate.opsForStream()
+                .pending(STREAM_KEY, GROUP, Range.unbounded(), batchSize);
+        List<RecordId> stale = new ArrayList<>();
+        for (PendingMessage message : pendingMessages) {
+            if (message.getElapsedTimeSinceLastDelivery().toMillis() >= reclaimIdle) {
+                stale.add(message.getId());
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().claim(STREAM_KEY, GROUP,
+                consumerPrefix + "-reclaim", Duration.ofMillis(reclaimIdle), stale.toArray(new RecordId[0]));
+        logger.warn("接管超时未确认的下单消息: {}", stale.size());
+        if (!records.isEmpty()) {
+            process(records);
+        }
+        // 消息体已被删除的条目无法处理，直接确认
+        Set<RecordId> claimed = records.stream().map(MapRecord::getId).collect(Collectors.toSet());
+        RecordId[] missing = stale.stream().filter(id -> !claimed.contains(id)).toArray(RecordId[]::new);
+        if (missing.length > 0) {
+            stringRedisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, missing);
+        }
+    }
+
+    /**
+     * 只读一个流，可变参数StreamOffset<String>...的泛型数组创建是安全的
+     */
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> read(Consumer consumer, StreamReadOptions options, ReadOffset offset) {
+        return stringRedisTemplate.opsForStream().read(consumer, options, StreamOffset.create(STREAM_KEY, offset));
+    }
+
+    /**
+     * 只确认并删除已创建或确定失败的消息
+     *
+     * @return 是否有消息因基础设施故障留在待确认列表中等待重试
+     */
+    private boolean process(List<MapRecord<String, Object, Object>> records) {
+        List<QueuedOrder> batch = new ArrayList<>(records.size());
+        Map<String, AsyncOrderStatus> results = new HashMap<>();
+        List<RecordId> done = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            Object orderNo = record.getValue().get(FIELD_ORDER_NO);
+            Object payload = record.getValue().get(FIELD_PAYLOAD);
+            if (orderNo == null || payload == null) {
+                done.add(record.getId());
+                continue;
+            }
+            try {
+                batch.add(new QueuedOrder(record.getId(), orderNo.toString(),
+                        objectMapper.readValue(payload.toString(), OrderSubmission.class)));
+            } catch (JsonProcessingException e) {
+                results.put(orderNo.toString(), new AsyncOrderStatus(orderNo.toString(), AsyncOrderStatus.FAILED,
+                        null, "Invalid order payload"));
+                done.add(record.getId());
+            }
+        }
+
+        boolean retry = false;
+        try {
+            // 整批一个事务提交，减少主库提交次数；回滚时本批的结果都不算数
+            Map<String, AsyncOrderStatus> created = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (QueuedOrder queued : batch) {
+                    created.put(queued.orderNo, createIfAbsent(queued));
+                }
+            });
+            results.putAll(created);
+            batch.forEach(queued -> done.add(queued.recordId));
+        } catch (RuntimeException batchFailure) {
+            for (QueuedOrder queued : batch) {
+                try {
+                    results.put(queued.orderNo, transactionTemplate.execute(status -> createIfAbsent(queued)));
+                    done.add(queued.recordId);
+                } catch (RuntimeException e) {
+                    if (!isTerminal(e) && !deliveriesExhausted(queued.recordId)) {
+                        // 基础设施故障时后面的订单大概率同样失败，一起留待重试
+                        logger.warn("创建订单暂时失败，消息留待重试: {}", queued.orderNo, e);
+                        retry = true;
+                        break;
+                    }
+                    results.put(queued.orderNo, new AsyncOrderStatus(queued.orderNo, AsyncOrderStatus.FAILED,
+                            null, e.getMessage()));
+                    done.add(queued.recordId);
+                }
+            }
+        }
+
+        saveStatuses(results.values());
+        if (!done.isEmpty()) {
+            RecordId[] ids = done.toArray(new RecordId[0]);
+            stringRedisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, ids);
+            stringRedisTemplate.opsForStream().delete(STREAM_KEY, ids);
+        }
+        return retry;
+    }
+
+    /**
+     * 业务校验失败（库存不足、商品不存在、数量无效）和约束冲突（例如用户不存在）重试也不会成功
+     */
+    private static boolean isTerminal(RuntimeException e) {
+        return e instanceof BadRequestException || e instanceof DataIntegrityViolationException;
+    }
+
+    private boolean deliveriesExhausted(RecordId id) {
+        PendingMessages pending = stringRedisTemplate.opsForStream()
+                .pending(STREAM_KEY, GROUP, Range.closed(id.getValue(), id.getValue()), 1);
+        return !pending.isEmpty() && pending.get(0).getTotalDeliveryCount() >= maxDeliveries;
+    }
+
+    /**
+     * 消息可能在提交后、确认前因实例退出而被重复投递，按订单号判断是否已创建
+     */
+    private AsyncOrderStatus createIfAbsent(QueuedOrder queued) {
+        Order order = orderService.getOrderByOrderNo(queued.orderNo).orElseGet(() -> {
+            Order newOrder = queued.submission.toOrder();
+            newOrder.setOrderNo(queued.orderNo);
+            return orderService.createOrder(newOrder, queued.submission.toOrderItems());
+        });
+        return new AsyncOrderStatus(queued.orderNo, AsyncOrderStatus.CREATED, order.getId(), null);
+    }
+
+    private void saveStatuses(Iterable<AsyncOrderStatus> statuses) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (AsyncOrderStatus status : statuses) {
+                String key = STATUS_KEY_PREFIX + status.getOrderNo();
+                Map<String, String> fields = new HashMap<>();
+                fields.put("status", status.getStatus());
+                if (status.getOrderId() != null) {
+                    fields.put("orderId", String.valueOf(status.getOrderId()));
+                }
+                if (status.getMessage() != null) {
+                    fields.put("message", status.getMessage());
+                }
+                stringConnection.hMSet(key, fields);
+                stringConnection.expire(key, statusTtlSeconds);
+            }
+            return null;
+        });
+    }
+
+    private void createGroup() {
+        try {
+            stringRedisTemplate.execute((RedisCallback<Object>) connection -> connection.streamCommands()
+                    .xGroupCreate(STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+        } catch (RedisSystemException e) {
+            // 消费者组已存在
+            logger.debug("消费者组已存在: {}", GROUP);
+        }
+    }
+
+    private static String resolveConsumerPrefix() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "order-consumer";
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class QueuedOrder {
+
+        private final RecordId recordId;
+
+        private final String orderNo;
+
+        private final OrderSubmission submission;
+
+        private QueuedOrder(RecordId recordId, String orderNo, OrderSubmission submission) {
+            this.recordId = recordId;
+            this.orderNo = orderNo;
+            this.submission = submission;
+        }
+    }
+}
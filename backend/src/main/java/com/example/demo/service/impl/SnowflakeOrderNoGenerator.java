@@ -0,0 +1,179 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.service.OrderNoGenerator;
+import com.example.demo.util.SnowflakeIdGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于SnowflakeIdGenerator的订单号："ORD" + 19位定长十进制id，字符串顺序与生成顺序一致。
+ * 节点号由order.id.node-id指定；未指定时启动时在Redis中租用一个空闲节点号（SET NX + 过期时间），
+ * 定期续期，实例退出时释放。从随机位置开始探测空闲节点号，节点号被占满时启动失败。
+ * 续期失败直到租约过期时暂停发号，避免另一个实例接手同一节点号后生成重复的订单号；
+ * 租约已被其他实例占用时改租新的节点号。
+ * 接手的实例从零开始计时，时钟可能比上一个持有者慢：发号在租约过期前max-clock-drift停止，
+ * 退出时也不立即删除租约，而是保留max-clock-drift后过期，节点号空出时上一个持有者的最后一个订单号已早于允许的时钟偏差
+ */
+@Service
+public class SnowflakeOrderNoGenerator implements OrderNoGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeOrderNoGenerator.class);
+
+    private static final String PREFIX = "ORD";
+
+    private static final int DIGITS = 19;
+
+    private static final String NODE_LEASE_KEY_PREFIX = "order-id:node:";
+
+    /**
+     * 仍由本实例持有时延长过期时间，返回1；已过期或被其他实例占用时返回0
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    /**
+     * 仍由本实例持有时把过期时间缩短为ARGV[2]毫秒
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final long maxClockDrift;
+
+    private final long leaseTtl;
+
+    private final String leaseToken = UUID.randomUUID().toString();
+
+    /**
+     * 节点号是否来自Redis租约；配置了固定节点号时为false
+     */
+    private final boolean leased;
+
+    private volatile SnowflakeIdGenerator idGenerator;
+
+    /**
+     * 停止发号的时刻（System.nanoTime）：从发出SET之前开始计时，比Redis中的过期时间至少早max-clock-drift
+     */
+    private volatile long leaseDeadline;
+
+    public SnowflakeOrderNoGenerator(StringRedisTemplate stringRedisTemplate,
+                                     @Value("${order.id.node-id:-1}") int nodeId,
+                                     @Value("${order.id.max-clock-drift:5000}") long maxClockDrift,
+                                     @Value("${order.id.node-lease-ttl:30000}") long leaseTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.maxClockDrift = maxClockDrift;
+        this.leaseTtl = leaseTtl;
+        this.leased = nodeId < 0;
+        if (leased && leaseTtl <= maxClockDrift) {
+            throw new IllegalArgumentException("order.id.node-lease-ttl must be greater than order.id.max-clock-drift");
+        }
+        if (leased) {
+            acquireNodeId();
+        } else {
+            this.idGenerator = new SnowflakeIdGenerator(nodeId, maxClockDrift);
+            logger.info("订单号生成器节点号: {}", nodeId);
+        }
+    }
+
+    @Override
+    public String nextOrderNo() {
+        if (leased && System.nanoTime() - leaseDeadline >= 0) {
+            throw new IllegalStateException("Order number node lease expired, refusing to generate order numbers");
+        }
+        return format(idGenerator.nextId());
+    }
+
+    /**
+     * 续期间隔应明显小于租约时长，Redis短暂不可用时租约仍有余量
+     */
+    @Scheduled(fixedDelayString = "${order.id.node-lease-renew-interval:10000}")
+    public void renewLease() {
+        if (!leased) {
+            return;
+        }
+        String key = NODE_LEASE_KEY_PREFIX + idGenerator.getNodeId();
+        long start = System.nanoTime();
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(key), leaseToken, String.valueOf(leaseTtl));
+            if (renewed != null && renewed == 1) {
+                leaseDeadline = deadlineFrom(start);
+                return;
+            }
+            // 租约已过期（例如启动耗时超过租约时长、续期前Redis不可用）：原节点号仍空闲时继续使用，否则改租新的节点号
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, leaseToken,
+                    Duration.ofMillis(leaseTtl)))) {
+                leaseDeadline = deadlineFrom(start);
+                logger.info("订单号节点号租约已过期，重新租用原节点号: {}", idGenerator.getNodeId());
+                return;
+            }
+            logger.warn("订单号节点号已被其他实例租用，改租新的节点号: {}", idGenerator.getNodeId());
+            acquireNodeId();
+        } catch (RuntimeException e) {
+            logger.warn("订单号节点号租约续期失败: {}", idGenerator.getNodeId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (!leased) {
+            return;
+        }
+        leaseDeadline = System.nanoTime();
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(NODE_LEASE_KEY_PREFIX + idGenerator.getNodeId()),
+                    leaseToken, String.valueOf(maxClockDrift));
+        } catch (RuntimeException e) {
+            logger.warn("释放订单号节点号租约失败，等待自然过期: {}", idGenerator.getNodeId(), e);
+        }
+    }
+
+    private void acquireNodeId() {
+        int slots = SnowflakeIdGenerator.MAX_NODE_ID + 1;
+        int first = ThreadLocalRandom.current().nextInt(slots);
+        for (int i = 0; i < slots; i++) {
+            int nodeId = (first + i) % slots;
+            long start = System.nanoTime();
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(NODE_LEASE_KEY_PREFIX + nodeId,
+                    leaseToken, Duration.ofMillis(leaseTtl)))) {
+                idGenerator = new SnowflakeIdGenerator(nodeId, maxClockDrift);
+                leaseDeadline = deadlineFrom(start);
+                logger.info("订单号生成器节点号: {}（Redis租约）", nodeId);
+                return;
+            }
+        }
+        throw new IllegalStateException("No free order number node id, all " + slots + " are leased");
+    }
+
+    private long deadlineFrom(long start) {
+        return start + TimeUnit.MILLISECONDS.toNanos(leaseTtl - maxClockDrift);
+    }
+
+    /**
+     * 左侧补零到19位（long的最大位数），避免位数变化后字符串顺序与数值顺序不一致
+     */
+    static String format(long id) {
+        char[] chars = new char[PREFIX.length() + DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + id % 10);
+            id /= 10;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.CacheInvalidator;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.HotStockService;
+import com.example.demo.service.StockReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 库存预占引擎：一次加锁、一个批次扣减，替代逐个商品的查询和保存
+ */
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductIndexCoordinator productIndexCoordinator;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    /**
+     * 仅在开启热点库存模式（inventory.hot.enabled=true）时存在
+     */
+    @Autowired(required = false)
+    private HotStockService hotStockService;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(List<OrderItem> items) {
+        Map<Long, Integer> quantities = mergeQuantities(items);
+
+        // 热点商品在Redis中原子扣减，不占用数据库行锁
+        Map<Long, Integer> hotQuantities = extractHot(quantities);
+        if (!hotQuantities.isEmpty()) {
+            hotStockService.reserve(hotQuantities);
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        // 按主键顺序一次性锁定购物车中的全部商品
+        List<Product> products = productRepository.lockStock(quantities.keySet());
+        if (products.size() != quantities.size()) {
+            throw new BadRequestException("Product not found");
+        }
+        for (Product product : products) {
+            if (product.getStock() < quantities.get(product.getId())) {
+                throw new BadRequestException("Insufficient stock for product: " + product.getName());
+            }
+        }
+
+        // 条件扣减作为兜底，任何一行未命中都回滚整个订单
+        int[] counts = productRepository.updateStockDecrement(quantities);
+        for (int count : counts) {
+            if (count == 0) {
+                throw new BadRequestException("Insufficient stock");
+            }
+        }
+        productIndexCoordinator.stockChanged(stocksAfter(products, quantities, -1));
+        cacheInvalidator.stockChanged(quantities.keySet());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(List<OrderItem> items) {
+        Map<Long, Integer> quantities = mergeQuantities(items);
+        Map<Long, Integer> hotQuantities = extractHot(quantities);
+        if (!hotQuantities.isEmpty()) {
+            hotStockService.release(hotQuantities);
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Product> products = productRepository.lockStock(quantities.keySet());
+        productRepository.updateStockIncrement(quantities);
+        productIndexCoordinator.stockChanged(stocksAfter(products, quantities, 1));
+        cacheInvalidator.stockChanged(quantities.keySet());
+    }
+
+    /**
+     * 行锁在事务结束前一直持有，加锁时读到的库存加上本次变化量就是提交后的库存
+     */
+    private static Map<Long, Integer> stocksAfter(List<Product> products, Map<Long, Integer> quantities, int sign) {
+        Map<Long, Integer> stocks = new TreeMap<>();
+        for (Product product : products) {
+            stocks.put(product.getId(), product.getStock() + sign * quantities.get(product.getId()));
+        }
+        return stocks;
+    }
+
+    /**
+     * 从待处理数量中移出热点商品，返回移出的部分
+     */
+    private Map<Long, Integer> extractHot(Map<Long, Integer> quantities) {
+        Map<Long, Integer> hotQuantities = new TreeMap<>();
+        if (hotStockService == null) {
+            return hotQuantities;
+        }
+        Iterator<Map.Entry<Long, Integer>> iterator = quantities.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            if (hotStockService.isHot(entry.getKey())) {
+                hotQuantities.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+        return hotQuantities;
+    }
+
+    /**
+     * 合并同一商品的多个订单项，TreeMap保证按主键升序执行
+     */
+    private Map<Long, Integer> mergeQuantities(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : items) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) {
+                throw new BadRequestException("Product not found");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new BadRequestException("Invalid quantity for product: " + item.getProduct().getId());
+            }
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+}
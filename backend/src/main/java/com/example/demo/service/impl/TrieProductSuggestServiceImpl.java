@@ -0,0 +1,268 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.ProductSuggestion;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ProductSuggestService;
+import com.example.demo.util.RadixTrie;
+import com.example.demo.util.PageUtil;
+import com.example.demo.util.TransactionUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 基于内存压缩前缀树的输入联想：上架商品的名称（含每个单词开头的后缀）和分类作为键，
+ * 商品按库存排名，分类按该分类下上架商品的总库存排名，查询不访问数据库。
+ * 库存除了商品写入外还随下单、取消订单和热点库存回写变化，这些路径提交后通过updateStock重新排名
+ */
+@Service
+public class TrieProductSuggestServiceImpl implements ProductSuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrieProductSuggestServiceImpl.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RadixTrie<Entry> trie = new RadixTrie<>(
+            Comparator.comparingLong(Entry::getScore).reversed().thenComparing(Entry::getText), MAX_SUGGESTIONS);
+
+    private final Map<Long, Entry> products = new HashMap<>();
+
+    private final Map<String, Entry> categories = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        List<Entry> entries;
+        lock.readLock().lock();
+        try {
+            entries = trie.prefixTop(key, Math.min(limit, MAX_SUGGESTIONS));
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ProductSuggestion> suggestions = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            suggestions.add(entry.toSuggestion());
+        }
+        return suggestions;
+    }
+
+    @Override
+    public void index(Product product) {
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeProduct(product.getId());
+                addProduct(product);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long productId) {
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeProduct(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void updateStock(Map<Long, Integer> stocks) {
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                stocks.forEach(this::rescoreProduct);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            products.clear();
+            categories.clear();
+            readOnly.executeWithoutResult(status ->
+                    PageUtil.forEachDetached(productRepository.streamAll(), entityManager, this::addProduct));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("商品联想索引构建完成，商品数: {}，耗时: {}ms", products.size(), System.currentTimeMillis() - start);
+    }
+
+    private void addProduct(Product product) {
+        if (!Boolean.TRUE.equals(product.getStatus()) || product.getName() == null) {
+            return;
+        }
+        long stock = product.getStock() == null ? 0 : product.getStock();
+        Entry entry = new Entry(product.getName(), ProductSuggestion.TYPE_PRODUCT, product.getId(), stock,
+                product.getCategory(), nameKeys(product.getName()));
+        products.put(product.getId(), entry);
+        for (String key : entry.keys) {
+            trie.put(key, entry);
+        }
+        if (entry.category != null) {
+            adjustCategory(entry.category, stock, 1);
+        }
+    }
+
+    private void removeProduct(Long productId) {
+        Entry entry = products.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            trie.remove(key, entry);
+        }
+        if (entry.category != null) {
+            adjustCategory(entry.category, -entry.score, -1);
+        }
+    }
+
+    /**
+     * 只改变分数，名称、分类和键不变
+     */
+    private void rescoreProduct(Long productId, Integer stock) {
+        Entry current = products.get(productId);
+        long score = stock == null ? 0 : stock;
+        if (current == null || current.score == score) {
+            return;
+        }
+        Entry entry = new Entry(current.text, current.type, productId, score, current.category, current.keys);
+        products.put(productId, entry);
+        for (String key : current.keys) {
+            trie.remove(key, current);
+            trie.put(key, entry);
+        }
+        if (entry.category != null) {
+            adjustCategory(entry.category, score - current.score, 0);
+        }
+    }
+
+    /**
+     * 分类的排名随商品增删和库存变化，先移出前缀树再按新分数放回
+     */
+    private void adjustCategory(String category, long stockDelta, int countDelta) {
+        String key = normalize(category);
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry current = categories.remove(key);
+        long score = stockDelta;
+        int count = countDelta;
+        if (current != null) {
+            trie.remove(key, current);
+            score += current.score;
+            count += current.productCount;
+        }
+        if (count > 0) {
+            Entry entry = new Entry(category, ProductSuggestion.TYPE_CATEGORY, null, score, null, Set.of(key));
+            entry.productCount = count;
+            categories.put(key, entry);
+            trie.put(key, entry);
+        }
+    }
+
+    /**
+     * 整个名称以及名称中每个单词开头的后缀，输入名称中间的单词也能联想到
+     */
+    private static Set<String> nameKeys(String name) {
+        String normalized = normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ' && normalized.charAt(i) != ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+
+        private final String text;
+
+        private final String type;
+
+        private final Long productId;
+
+        private final long score;
+
+        private final String category;
+
+        private final Set<String> keys;
+
+        private int productCount;
+
+        private Entry(String text, String type, Long productId, long score, String category, Set<String> keys) {
+            this.text = text;
+            this.type = type;
+            this.productId = productId;
+            this.score = score;
+            this.category = category;
+            this.keys = keys;
+        }
+
+        private long getScore() {
+            return score;
+        }
+
+        private String getText() {
+            return text;
+        }
+
+        private ProductSuggestion toSuggestion() {
+            return new ProductSuggestion(text, type, productId);
+        }
+    }
+}
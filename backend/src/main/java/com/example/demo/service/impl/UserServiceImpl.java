@@ -1,52 +1,83 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CacheInvalidator;
+import com.example.demo.config.Master;
+import com.example.demo.config.ReadOnly;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.service.UserService;
+import com.example.demo.util.PageUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Override
+    @ReadOnly
+    @Cacheable(value = "users", key = "#after + ':' + #limit", sync = true)
+    public List<User> getUsers(Long after, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(after, PageUtil.firstPage(limit));
+    }
+
+    @Override
+    @ReadOnly
+    public void streamAllUsers(Consumer<User> consumer) {
+        PageUtil.forEachDetached(userRepository.streamAll(), entityManager, consumer);
+    }
+
     @Override
-    @Cacheable(value = "users")
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @ReadOnly
+    public long countUsers() {
+        return userRepository.count();
     }
 
     @Override
-    @Cacheable(value = "user", key = "#id")
+    @ReadOnly
+    @Cacheable(value = "user", key = "#id", sync = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
     @Override
-    @Cacheable(value = "userByUsername", key = "#username")
+    @ReadOnly
+    @Cacheable(value = "userByUsername", key = "#username", sync = true)
     public Optional<User> getUserByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
     @Override
+    @Master
     @CachePut(value = "user", key = "#user.id")
-    @CacheEvict(value = "users", allEntries = true)
     public User saveUser(User user) {
-        return userRepository.save(user);
+        boolean created = user.getId() == null;
+        User savedUser = userRepository.save(user);
+        cacheInvalidator.userChanged(savedUser, created);
+        return savedUser;
     }
 
     @Override
-    @CacheEvict(value = {"user", "users"}, key = "#id", allEntries = true)
+    @Master
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        cacheInvalidator.userDeleted(id);
     }
 
     @Override
@@ -0,0 +1,62 @@
+package com.example.demo.util;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 游标（keyset）分页工具：按id升序，每页从上一页最后一个id之后开始；
+ * 按id降序的列表（用户订单）同样以上一页最后一个id作为下一页游标
+ */
+public class PageUtil {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * 流式读取全表时每处理多少条清空一次持久化上下文
+     */
+    public static final int STREAM_CLEAR_INTERVAL = 1000;
+
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static Pageable firstPage(int limit) {
+        return PageRequest.of(0, limit);
+    }
+
+    /**
+     * 本页已满时返回最后一条记录的id作为下一页游标，否则返回null表示没有更多数据
+     */
+    public static <T> Long nextAfter(List<T> items, int limit, Function<T, Long> idGetter) {
+        if (items.size() < limit) {
+            return null;
+        }
+        return idGetter.apply(items.get(items.size() - 1));
+    }
+
+    /**
+     * 逐条消费流式查询的结果并关闭流，定期清空持久化上下文，已处理的实体不再驻留内存；返回处理的条数。
+     * 需要在事务内调用
+     */
+    public static <T> int forEachDetached(Stream<T> stream, EntityManager entityManager, Consumer<T> consumer) {
+        int count = 0;
+        try (stream) {
+            for (Iterator<T> iterator = stream.iterator(); iterator.hasNext(); ) {
+                consumer.accept(iterator.next());
+                if (++count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
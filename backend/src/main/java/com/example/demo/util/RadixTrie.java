@@ -0,0 +1,271 @@
+package com.example.demo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压缩前缀树：每个节点缓存其子树中排名前topK的值，前缀查询只需沿边走到对应节点，
+ * 与子树大小无关。非线程安全，由调用方加锁；值的排名字段变化时需先remove再put
+ */
+public class RadixTrie<T> {
+
+    private final Node<T> root = new Node<>("");
+
+    private final Comparator<T> ranking;
+
+    private final int topK;
+
+    public RadixTrie(Comparator<T> ranking, int topK) {
+        this.ranking = ranking;
+        this.topK = topK;
+    }
+
+    public void put(String key, T value) {
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                Node<T> leaf = new Node<>(key.substring(i));
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node<T> child = node.children[index];
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // 在公共前缀处拆分边
+                Node<T> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.insertChild(0, child);
+                middle.top = child.top;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<>(1);
+        }
+        node.values.add(value);
+        for (Node<T> n : path) {
+            n.top = offer(n.top, value);
+        }
+    }
+
+    public void remove(String key, T value) {
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                return;
+            }
+            Node<T> child = node.children[index];
+            if (!key.startsWith(child.label, i)) {
+                return;
+            }
+            node = child;
+            path.add(node);
+            i += child.label.length();
+        }
+        if (node.values == null || !removeIdentity(node.values, value)) {
+            return;
+        }
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node<T> n = path.get(depth);
+            if (depth > 0 && n.isEmpty()) {
+                path.get(depth - 1).removeChild(n);
+            } else if (containsIdentity(n.top, value)) {
+                n.top = collectTop(n);
+            }
+        }
+    }
+
+    /**
+     * 返回以prefix开头的键中排名前limit的值（limit不超过topK）
+     */
+    public List<T> prefixTop(String prefix, int limit) {
+        Node<T> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(i));
+            if (index < 0) {
+                return Collections.emptyList();
+            }
+            Node<T> child = node.children[index];
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (i + common < prefix.length() && common < child.label.length()) {
+                return Collections.emptyList();
+            }
+            node = child;
+            i += common;
+        }
+        int size = Math.min(limit, node.top.length);
+        List<T> result = new ArrayList<>(size);
+        for (int j = 0; j < size; j++) {
+            result.add(node.top[j]);
+        }
+        return result;
+    }
+
+    public void clear() {
+        root.children = Node.emptyChildren();
+        root.values = null;
+        root.top = Node.emptyTop();
+    }
+
+    private T[] offer(T[] top, T value) {
+        if (containsIdentity(top, value)) {
+            return top;
+        }
+        if (top.length == topK && ranking.compare(value, top[topK - 1]) >= 0) {
+            return top;
+        }
+        T[] next = Arrays.copyOf(top, Math.min(top.length + 1, topK));
+        int position = top.length;
+        while (position > 0 && ranking.compare(value, top[position - 1]) < 0) {
+            position--;
+        }
+        System.arraycopy(top, position, next, position + 1, next.length - position - 1);
+        next[position] = value;
+        return next;
+    }
+
+    /**
+     * 子节点的topK已覆盖各自子树，合并本节点的值和子节点的topK即可
+     */
+    @SuppressWarnings("unchecked")
+    private T[] collectTop(Node<T> node) {
+        Map<T, Boolean> candidates = new IdentityHashMap<>();
+        if (node.values != null) {
+            for (T value : node.values) {
+                candidates.put(value, Boolean.TRUE);
+            }
+        }
+        for (Node<T> child : node.children) {
+            for (T value : child.top) {
+                candidates.put(value, Boolean.TRUE);
+            }
+        }
+        List<T> sorted = new ArrayList<>(candidates.keySet());
+        sorted.sort(ranking);
+        return sorted.subList(0, Math.min(topK, sorted.size())).toArray((T[]) new Object[0]);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static <T> boolean containsIdentity(T[] values, T value) {
+        for (T v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> boolean removeIdentity(List<T> values, T value) {
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == value) {
+                values.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node<T> {
+
+        private static final Node<?>[] EMPTY_CHILDREN = new Node[0];
+
+        private static final Object[] EMPTY_TOP = new Object[0];
+
+        /**
+         * 父节点到本节点的边
+         */
+        private String label;
+
+        /**
+         * 按边的首字符排序，二分查找
+         */
+        private Node<T>[] children = emptyChildren();
+
+        /**
+         * 键恰好在本节点结束的值
+         */
+        private List<T> values;
+
+        private T[] top = emptyTop();
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] emptyChildren() {
+            return (Node<T>[]) EMPTY_CHILDREN;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] emptyTop() {
+            return (T[]) EMPTY_TOP;
+        }
+
+        private int childIndex(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].label.charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void insertChild(int index, Node<T> child) {
+            Node<T>[] next = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, index, next, index + 1, children.length - index);
+            next[index] = child;
+            children = next;
+        }
+
+        private void removeChild(Node<T> child) {
+            int index = childIndex(child.label.charAt(0));
+            if (index < 0 || children[index] != child) {
+                return;
+            }
+            Node<T>[] next = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, next, index, children.length - index - 1);
+            children = next;
+        }
+
+        private boolean isEmpty() {
+            return children.length == 0 && (values == null || values.isEmpty());
+        }
+    }
+}
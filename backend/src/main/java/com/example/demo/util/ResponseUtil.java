@@ -3,6 +3,7 @@ package com.example.demo.util;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ResponseUtil {
@@ -15,6 +16,29 @@ public class ResponseUtil {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 游标分页响应：data为当前页，nextAfter为下一页游标（没有更多数据时为null）
+     */
+    public static <T> ResponseEntity<?> page(List<T> items, Long nextAfter) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", HttpStatus.OK.value());
+        response.put("message", "Success");
+        response.put("data", items);
+        response.put("nextAfter", nextAfter);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 请求已受理、将异步处理，返回202
+     */
+    public static <T> ResponseEntity<?> accepted(T data) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("code", HttpStatus.ACCEPTED.value());
+        response.put("message", "Accepted");
+        response.put("data", data);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     public static ResponseEntity<?> success() {
         Map<String, Object> response = new HashMap<>();
         response.put("code", HttpStatus.OK.value());
@@ -0,0 +1,80 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 时间有序的64位id：41位毫秒时间戳（自epoch起）+ 10位节点号 + 12位序号。
+ * 无锁实现，最近一次发出的时间戳和序号打包在一个AtomicLong中，通过CAS推进：
+ * 同一毫秒内序号递增，序号用尽时进位到下一毫秒；系统时钟回拨时继续沿用已发出的时间戳递增，
+ * 保证单节点内严格递增。逻辑时钟领先系统时钟超过maxDriftMillis时拒绝发号
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 2024-01-01T00:00:00Z，41位时间戳可用约69年
+     */
+    public static final long DEFAULT_EPOCH = 1704067200000L;
+
+    public static final int NODE_BITS = 10;
+
+    public static final int SEQUENCE_BITS = 12;
+
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long epoch;
+
+    private final long nodeId;
+
+    private final long maxDriftMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * 最近一次发出的(时间戳 << SEQUENCE_BITS | 序号)
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId, long maxDriftMillis) {
+        this(nodeId, maxDriftMillis, DEFAULT_EPOCH, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, long maxDriftMillis, long epoch, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.maxDriftMillis = maxDriftMillis;
+        this.epoch = epoch;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - epoch;
+            long previous = last.get();
+            long previousTime = previous >>> SEQUENCE_BITS;
+            long next;
+            if (now > previousTime) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                if (previousTime - now > maxDriftMillis) {
+                    throw new IllegalStateException("Clock is " + (previousTime - now)
+                            + "ms behind the last issued id, refusing to generate ids");
+                }
+                // 同一毫秒或时钟回拨：序号加一，溢出时自然进位到时间戳
+                next = previous + 1;
+            }
+            if (last.compareAndSet(previous, next)) {
+                long time = next >>> SEQUENCE_BITS;
+                return (time << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public int getNodeId() {
+        return (int) nodeId;
+    }
+}
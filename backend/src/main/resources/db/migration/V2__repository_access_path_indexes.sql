@@ -0,0 +1,22 @@
+-- 按仓库查询方法的访问路径建立索引：等值条件列在前，排序列在后
+-- 已有的索引：orders.order_no唯一索引（findByOrderNo、findDetailRowsByOrderNo）；
+-- order_items.order_id外键自带索引（findViewsByOrderId、findByOrder，二级索引隐含主键，结果已按id有序）
+
+-- OrderRepository.findSummariesByUserId：WHERE user_id = ? ORDER BY created_at DESC
+-- 按索引倒序读取，不再filesort；该索引也满足user_id外键的要求，外键原来的单列索引会被自动替换
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
+
+-- OrderRepository.findSummariesByStatus：WHERE status = ?；按状态统计订单数时是覆盖索引
+CREATE INDEX idx_orders_status ON orders (status);
+
+-- ProductRepository.findByCategory：WHERE category = ?
+CREATE INDEX idx_products_category ON products (category);
+
+-- ProductRepository.findByName：WHERE name = ?
+CREATE INDEX idx_products_name ON products (name);
+
+-- ProductRepository.findByStatusTrue：status原为VARCHAR，实体是Boolean，与数字比较时每行都要做类型转换，无法使用索引；
+-- 先把'true'/'1'统一为'1'、其余为'0'，再改为TINYINT(1)
+UPDATE products SET status = CASE WHEN status IN ('1', 'true') THEN '1' ELSE '0' END;
+ALTER TABLE products MODIFY status TINYINT(1) NOT NULL DEFAULT 1;
+CREATE INDEX idx_products_status ON products (status);
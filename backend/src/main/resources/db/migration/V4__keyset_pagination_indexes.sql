@@ -0,0 +1,6 @@
+-- 按用户和按状态的订单列表、按分类和上架状态的商品列表改为游标分页：WHERE 条件列 = ? AND id > ? ORDER BY id LIMIT ?
+-- InnoDB二级索引隐含主键，(status)、(category)、(status)单列索引即按(条件列, id)有序，可以直接定位游标并按序读取；
+-- 用户订单仍然最新的在前，改为按id倒序：WHERE user_id = ? AND id < ? ORDER BY id DESC LIMIT ?，id随下单时间递增，顺序与原来按下单时间倒序一致。
+-- (user_id, created_at)无法按id定位游标，改为(user_id)单列索引（同时满足user_id外键），按(user_id, id)反向扫描
+CREATE INDEX idx_orders_user ON orders (user_id);
+DROP INDEX idx_orders_user_created ON orders;
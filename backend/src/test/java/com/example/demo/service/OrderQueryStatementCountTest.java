@@ -0,0 +1,193 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CacheInvalidator;
+import com.example.demo.dto.OrderDetail;
+import com.example.demo.dto.OrderItemView;
+import com.example.demo.dto.OrderSummary;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderItem;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.service.impl.OrderServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 订单查询接口的SQL条数回归测试：每个接口在有多个用户、多个订单、每个订单多个订单项时都只执行一条SQL，
+ * 按接口返回的内容序列化为JSON后计数，序列化触发的延迟加载也会被统计。
+ * 使用H2内存库（MySQL兼容模式），缓存替换为不缓存的实现，每次调用都访问数据库
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false"
+})
+@Import({OrderServiceImpl.class, OrderQueryStatementCountTest.NoCacheConfig.class})
+class OrderQueryStatementCountTest {
+
+    private static final int USERS = 2;
+
+    private static final int ORDERS_PER_USER = 3;
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private StockReservationService stockReservationService;
+
+    @MockBean
+    private CacheInvalidator cacheInvalidator;
+
+    @MockBean
+    private OrderNoGenerator orderNoGenerator;
+
+    @MockBean
+    private OrderStatsService orderStatsService;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final List<Order> orders = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(100);
+            products.add(entityManager.persist(product));
+        }
+        for (int u = 0; u < USERS; u++) {
+            User user = new User();
+            user.setUsername("user" + u);
+            user.setPassword("secret");
+            user.setEmail("user" + u + "@example.com");
+            entityManager.persist(user);
+            for (int o = 0; o < ORDERS_PER_USER; o++) {
+                Order order = new Order();
+                order.setOrderNo("ORD-" + u + "-" + o);
+                order.setUser(user);
+                order.setStatus(o == 0 ? "PENDING" : "PAID");
+                order.setTotalAmount(new BigDecimal("30.00"));
+                order.setTotalQuantity(ITEMS_PER_ORDER);
+                orders.add(entityManager.persist(order));
+                for (Product product : products) {
+                    OrderItem item = new OrderItem();
+                    item.setOrder(order);
+                    item.setProduct(product);
+                    item.setProductName(product.getName());
+                    item.setQuantity(1);
+                    item.setPrice(product.getPrice());
+                    item.setSubtotal(product.getPrice());
+                    entityManager.persist(item);
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void orderPageUsesOneStatement() throws Exception {
+        List<OrderSummary> page = orderService.getOrders(0L, 100);
+        objectMapper.writeValueAsString(page);
+
+        assertEquals(USERS * ORDERS_PER_USER, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ordersByUserUseOneStatement() throws Exception {
+        Long userId = orders.get(0).getUser().getId();
+        List<OrderSummary> page = orderService.getOrdersByUserId(userId, Long.MAX_VALUE, 100);
+        objectMapper.writeValueAsString(page);
+
+        assertEquals(ORDERS_PER_USER, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ordersByUserAreNewestFirst() {
+        Long userId = orders.get(0).getUser().getId();
+        List<OrderSummary> first = orderService.getOrdersByUserId(userId, Long.MAX_VALUE, 2);
+        List<OrderSummary> second = orderService.getOrdersByUserId(userId, first.get(1).getId(), 2);
+
+        assertEquals(orders.get(ORDERS_PER_USER - 1).getId(), first.get(0).getId());
+        assertTrue(first.get(0).getId() > first.get(1).getId());
+        assertEquals(List.of(orders.get(0).getId()), second.stream().map(OrderSummary::getId).toList());
+    }
+
+    @Test
+    void ordersByStatusUseOneStatement() throws Exception {
+        List<OrderSummary> page = orderService.getOrdersByStatus("PAID", 0L, 100);
+        objectMapper.writeValueAsString(page);
+
+        assertEquals(USERS * (ORDERS_PER_USER - 1), page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderItemsUseOneStatement() throws Exception {
+        List<OrderItemView> items = orderService.getOrderItemsByOrderId(orders.get(0).getId());
+        objectMapper.writeValueAsString(items);
+
+        assertEquals(ITEMS_PER_ORDER, items.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void orderDetailUsesOneStatement() throws Exception {
+        Optional<OrderDetail> detail = orderService.getOrderDetail(orders.get(0).getId());
+        assertTrue(detail.isPresent());
+        objectMapper.writeValueAsString(detail.get());
+
+        assertEquals(ITEMS_PER_ORDER, detail.get().getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @TestConfiguration
+    static class NoCacheConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+    }
+}
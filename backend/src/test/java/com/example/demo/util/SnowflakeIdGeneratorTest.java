@@ -0,0 +1,128 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 订单号唯一性：NODES个生成器模拟多个实例，每个生成器由THREADS个线程并发取号，
+ * 校验每个线程拿到的id严格递增、所有id全局不重复；时钟通过构造参数注入，覆盖回拨和停滞的情况
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final int NODES = 4;
+
+    private static final int THREADS = 4;
+
+    private static final int IDS_PER_THREAD = 50_000;
+
+    private static final long MAX_DRIFT = 5000;
+
+    @Test
+    void concurrentIdsAreUniqueWithSystemClock() throws Exception {
+        assertUniqueAndIncreasing(System::currentTimeMillis);
+    }
+
+    /**
+     * 系统时钟上叠加抖动：约每千次读取回拨0~3毫秒，回拨不累积
+     */
+    @Test
+    void concurrentIdsAreUniqueWithDriftingClock() throws Exception {
+        Random random = new Random(42);
+        assertUniqueAndIncreasing(() -> {
+            long now = System.currentTimeMillis();
+            synchronized (random) {
+                return random.nextInt(1000) == 0 ? now - random.nextInt(4) : now;
+            }
+        });
+    }
+
+    /**
+     * 时钟停在同一毫秒时序号用尽后进位到下一毫秒，仍然严格递增
+     */
+    @Test
+    void sequenceOverflowCarriesIntoNextMillisecond() {
+        long now = SnowflakeIdGenerator.DEFAULT_EPOCH + 1000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, MAX_DRIFT, SnowflakeIdGenerator.DEFAULT_EPOCH,
+                () -> now);
+        int count = 3 << SnowflakeIdGenerator.SEQUENCE_BITS;
+        long previous = generator.nextId();
+        for (int i = 1; i < count; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        long lastTime = previous >>> (SnowflakeIdGenerator.NODE_BITS + SnowflakeIdGenerator.SEQUENCE_BITS);
+        assertEquals(1000 + 2, lastTime);
+    }
+
+    @Test
+    void clockRewindWithinDriftKeepsIncreasing() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.DEFAULT_EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, MAX_DRIFT, SnowflakeIdGenerator.DEFAULT_EPOCH,
+                clock::get);
+        long before = generator.nextId();
+        clock.addAndGet(-MAX_DRIFT);
+        assertTrue(generator.nextId() > before);
+    }
+
+    @Test
+    void clockRewindBeyondDriftIsRejected() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.DEFAULT_EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, MAX_DRIFT, SnowflakeIdGenerator.DEFAULT_EPOCH,
+                clock::get);
+        generator.nextId();
+        clock.addAndGet(-MAX_DRIFT - 1);
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    private static void assertUniqueAndIncreasing(LongSupplier clock) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(NODES * THREADS);
+            for (int node = 0; node < NODES; node++) {
+                SnowflakeIdGenerator generator = new SnowflakeIdGenerator(node, MAX_DRIFT,
+                        SnowflakeIdGenerator.DEFAULT_EPOCH, clock);
+                for (int t = 0; t < THREADS; t++) {
+                    futures.add(executor.submit(() -> {
+                        long[] ids = new long[IDS_PER_THREAD];
+                        for (int i = 0; i < IDS_PER_THREAD; i++) {
+                            ids[i] = generator.nextId();
+                        }
+                        return ids;
+                    }));
+                }
+            }
+
+            long[] all = new long[NODES * THREADS * IDS_PER_THREAD];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(ids[i] > ids[i - 1], "ids of one thread must be strictly increasing");
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertTrue(all[i] != all[i - 1], "duplicate id " + all[i]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,11 +1,26 @@
-import request from './request'
+import request, { fetchAllPages, PAGE_LIMIT } from './request'
 
 // 产品API服务
 export const productApi = {
-  // 获取所有产品
-  getAllProducts: () => {
+  // 获取一页产品，返回{ items, nextAfter }
+  getProductPage: (after = 0, limit = PAGE_LIMIT) => {
     return request({
       url: '/products',
+      method: 'get',
+      params: { after, limit },
+      cursorPage: true
+    })
+  },
+
+  // 获取所有产品（按游标逐页读取）
+  getAllProducts: () => {
+    return fetchAllPages(after => productApi.getProductPage(after))
+  },
+
+  // 产品总数
+  countProducts: () => {
+    return request({
+      url: '/products/count',
       method: 'get'
     })
   },
@@ -42,5 +57,23 @@ export const productApi = {
       url: `/products/${id}`,
       method: 'delete'
     })
+  },
+
+  // 搜索产品（按相关度排序）
+  searchProducts: (keyword, limit) => {
+    return request({
+      url: '/products/search',
+      method: 'get',
+      params: { keyword, limit }
+    })
+  },
+
+  // 输入联想，服务端内存前缀树实现，适合每次按键调用
+  suggestProducts: (prefix, limit = 10) => {
+    return request({
+      url: '/products/suggest',
+      method: 'get',
+      params: { prefix, limit }
+    })
   }
 }
\ No newline at end of file
@@ -13,6 +13,15 @@ const request = axios.create({
 // 加载实例
 let loadingInstance = null
 
+// 写操作后服务端返回的一致性令牌，后续请求带回以保证读到自己的写入
+const CONSISTENCY_TOKEN_HEADER = 'X-Consistency-Token'
+
+// 用户列表的下一页游标放在响应头中，其他列表放在响应体的nextAfter中
+const NEXT_AFTER_HEADER = 'X-Next-After'
+
+// 列表接口每页最多条数（与服务端PageUtil.MAX_LIMIT一致）
+export const PAGE_LIMIT = 1000
+
 // 请求拦截器
 request.interceptors.request.use(
   config => {
@@ -28,6 +37,11 @@ request.interceptors.request.use(
     if (token) {
       config.headers.Authorization = `Bearer ${token}`
     }
+
+    const consistencyToken = sessionStorage.getItem('consistencyToken')
+    if (consistencyToken) {
+      config.headers[CONSISTENCY_TOKEN_HEADER] = consistencyToken
+    }
     
     return config
   },
@@ -49,9 +63,19 @@ request.interceptors.response.use(
       loadingInstance.close()
     }
     
+    const consistencyToken = response.headers[CONSISTENCY_TOKEN_HEADER.toLowerCase()]
+    if (consistencyToken) {
+      sessionStorage.setItem('consistencyToken', consistencyToken)
+    }
+
     // 统一处理响应格式
     const res = response.data
     
+    // 游标分页请求（config.cursorPage）返回当前页和下一页游标，没有更多数据时nextAfter为null
+    if (response.config.cursorPage && Array.isArray(res)) {
+      return { items: res, nextAfter: response.headers[NEXT_AFTER_HEADER.toLowerCase()] ?? null }
+    }
+
     // 如果响应是数组，直接返回
     if (Array.isArray(res)) {
       return res
@@ -63,6 +87,10 @@ request.interceptors.response.use(
       return Promise.reject(new Error(res.message || '请求失败'))
     }
     
+    if (response.config.cursorPage) {
+      return { items: res.data || [], nextAfter: res.nextAfter ?? null }
+    }
+
     // 返回响应数据中的data字段，如果存在
     return res.data !== undefined ? res.data : res
   },
@@ -99,4 +127,16 @@ request.interceptors.response.use(
   }
 )
 
+// 从第一页开始按游标依次读取，直到没有下一页，返回全部记录
+export const fetchAllPages = async (fetchPage) => {
+  const all = []
+  let after = 0
+  while (after !== null) {
+    const page = await fetchPage(after)
+    all.push(...page.items)
+    after = page.nextAfter
+  }
+  return all
+}
+
 export default request
\ No newline at end of file
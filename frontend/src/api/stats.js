@@ -0,0 +1,30 @@
+import request from './request'
+
+// 订单统计API服务（读取服务端预先汇总的统计表）
+export const statsApi = {
+  // 订单总数、销售额、今日订单数和销售额
+  getSummary: () => {
+    return request({
+      url: '/stats/summary',
+      method: 'get'
+    })
+  },
+
+  // 每日订单数和销售额，from/to格式为yyyy-MM-dd
+  getDailyStats: (params) => {
+    return request({
+      url: '/stats/orders/daily',
+      method: 'get',
+      params
+    })
+  },
+
+  // 销量排行，sort为revenue或quantity
+  getTopProducts: (params) => {
+    return request({
+      url: '/stats/products/top',
+      method: 'get',
+      params
+    })
+  }
+}
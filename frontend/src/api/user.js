@@ -1,11 +1,26 @@
-import request from './request'
+import request, { fetchAllPages, PAGE_LIMIT } from './request'
 
 // 用户API服务
 export const userApi = {
-  // 获取所有用户
-  getAllUsers: () => {
+  // 获取一页用户，返回{ items, nextAfter }
+  getUserPage: (after = 0, limit = PAGE_LIMIT) => {
     return request({
       url: '/users',
+      method: 'get',
+      params: { after, limit },
+      cursorPage: true
+    })
+  },
+
+  // 获取所有用户（按游标逐页读取）
+  getAllUsers: () => {
+    return fetchAllPages(after => userApi.getUserPage(after))
+  },
+
+  // 用户总数
+  countUsers: () => {
+    return request({
+      url: '/users/count',
       method: 'get'
     })
   },